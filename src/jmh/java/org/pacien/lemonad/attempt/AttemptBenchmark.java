@@ -0,0 +1,135 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * @author pacien
+ */
+@State(Scope.Benchmark)
+public class AttemptBenchmark {
+  String validInput = "42";
+  String invalidInput = "forty-two";
+  AttemptPipeline<Integer, String, String> pipeline = AttemptPipeline
+    .<Integer, String>of()
+    .transformResult(result -> result > 0 ? Attempt.success(result + 1) : Attempt.failure("negative"))
+    .mapResult(result -> result * 2)
+    .transformResult(result -> Attempt.<Long, Integer>success((long) result), error -> Integer.toString(error))
+    .recoverError(error -> Attempt.success(0L))
+    .mapError(error -> error + "!")
+    .mapResult(Object::toString)
+    .recoverError(error -> Attempt.<Integer, String>failure(error), Object::toString);
+  StacklessException preallocatedException = new StacklessException("not a number");
+  Attempt<Integer, String> success = Attempt.success(42);
+  Attempt<Integer, String> failure = Attempt.failure("failure");
+  List<String> batchInputs = IntStream.range(0, 10_000)
+    .mapToObj(i -> i % 100 == 0 ? invalidInput : Integer.toString(i))
+    .collect(toList());
+
+  @Benchmark public Attempt<String, String> chainOnSuccess() {
+    return chain(success);
+  }
+
+  @Benchmark public Attempt<String, String> chainOnFailure() {
+    return chain(failure);
+  }
+
+  @Benchmark public Attempt<String, String> pipelineOnSuccess() {
+    return pipeline.applyTo(success);
+  }
+
+  @Benchmark public Attempt<String, String> pipelineOnFailure() {
+    return pipeline.applyTo(failure);
+  }
+
+  @Benchmark public void pipelineToConsumer(Blackhole blackhole) {
+    pipeline.ifSuccess(42, blackhole::consume);
+  }
+
+  @Benchmark public Attempt<Integer, NumberFormatException> attemptSuccess() {
+    return Attempt.attempt(() -> Integer.parseInt(validInput));
+  }
+
+  @Benchmark public Attempt<Integer, NumberFormatException> attemptThrowing() {
+    return Attempt.attempt(() -> Integer.parseInt(invalidInput));
+  }
+
+  @Benchmark public Attempt<Integer, String> attemptThrowingCaught() {
+    return Attempt.attempt(() -> Integer.parseInt(invalidInput), NumberFormatException.class, Throwable::getMessage);
+  }
+
+  @Benchmark public Attempt<Integer, String> attemptThrowingStackless() {
+    return Attempt.attempt(() -> parse(invalidInput, new StacklessException("not a number")), StacklessException.class, Throwable::getMessage);
+  }
+
+  @Benchmark public Attempt<Integer, String> attemptThrowingPreallocated() {
+    return Attempt.attempt(() -> parse(invalidInput, preallocatedException), StacklessException.class, Throwable::getMessage);
+  }
+
+  @Benchmark public Attempt<Integer, NumberFormatException> attemptBoxedArithmetic() {
+    return Attempt.<Integer, NumberFormatException>attempt(() -> Integer.parseInt(validInput)).mapResult(result -> result * 2).mapResult(result -> result + 1);
+  }
+
+  @Benchmark public IntAttempt<NumberFormatException> attemptPrimitiveArithmetic() {
+    return IntAttempt.<NumberFormatException>attempt(() -> Integer.parseInt(validInput)).mapResult(result -> result * 2).mapResult(result -> result + 1);
+  }
+
+  @Benchmark public List<Attempt<Integer, String>> attemptList() {
+    return batchInputs.stream()
+      .map(input -> Attempt.<Integer, NumberFormatException>attempt(() -> Integer.parseInt(input)))
+      .map(attempt -> attempt.mapResult(result -> result * 2).mapError(Throwable::getMessage))
+      .collect(toList());
+  }
+
+  @Benchmark public AttemptBatch<Integer, String> attemptBatch() {
+    return AttemptBatch.<String, Integer, NumberFormatException>attempt(batchInputs, Integer::parseInt)
+      .mapResult(result -> result * 2)
+      .mapError(Throwable::getMessage);
+  }
+
+  private static int parse(String input, StacklessException exception) {
+    var result = 0;
+    for (var i = 0; i < input.length(); i++) {
+      var digit = Character.digit(input.charAt(i), 10);
+      if (digit < 0) throw exception;
+      result = result * 10 + digit;
+    }
+    return result;
+  }
+
+  private static Attempt<String, String> chain(Attempt<Integer, String> attempt) {
+    return attempt
+      .transformResult(result -> result > 0 ? Attempt.success(result + 1) : Attempt.failure("negative"))
+      .mapResult(result -> result * 2)
+      .transformResult(result -> Attempt.<Long, Integer>success((long) result), error -> Integer.toString(error))
+      .recoverError(error -> Attempt.success(0L))
+      .mapError(error -> error + "!")
+      .mapResult(Object::toString)
+      .recoverError(error -> Attempt.<Integer, String>failure(error), Object::toString);
+  }
+}
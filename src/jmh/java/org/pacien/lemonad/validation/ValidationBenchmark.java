@@ -0,0 +1,63 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * @author pacien
+ */
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+  @Param({"1", "10", "100", "1000"}) int errorCount;
+  String subject = "subject";
+  List<Integer> error = List.of(0);
+  Validator<String, Integer> validator = Validator
+    .<String, Integer>of()
+    .validate(String::isEmpty, 0)
+    .validate(String::length, length -> length > 3, 1)
+    .validate(s -> s.charAt(0), Character::isUpperCase, 2)
+    .validate(s -> s.startsWith("s") ? List.of() : List.of(3))
+    .merge(s -> Validation.of(s, 4));
+
+  @Benchmark public Validation<String, Integer> mergeErrors() {
+    var validation = Validation.<String, Integer>of(subject);
+    for (var i = 0; i < errorCount; i++) validation = validation.merge(error);
+    return validation;
+  }
+
+  @Benchmark public Validation<String, Integer> validateChain() {
+    return Validation
+      .<String, Integer>of(subject)
+      .validate(String::isEmpty, 0)
+      .validate(String::length, length -> length > 3, 1)
+      .validate(s -> s.charAt(0), Character::isUpperCase, 2)
+      .validate(s -> s.startsWith("s") ? List.of() : List.of(3))
+      .merge(s -> Validation.of(s, 4));
+  }
+
+  @Benchmark public Validation<String, Integer> applyValidator() {
+    return validator.apply(subject);
+  }
+}
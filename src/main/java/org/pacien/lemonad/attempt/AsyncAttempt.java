@@ -0,0 +1,227 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+
+/**
+ * Wraps an {@link Attempt} which is being computed asynchronously.
+ * Each transformation is run as a new stage on the {@link Executor} of the {@link AsyncAttempt}.
+ * Any exception thrown by a transformation function completes the following stages exceptionally.
+ *
+ * @param <R> the potential wrapped result type.
+ * @param <E> the potential error type.
+ * @author pacien
+ */
+public interface AsyncAttempt<R, E> {
+  /**
+   * @return the {@link Executor} running the stages of this {@link AsyncAttempt}.
+   */
+  Executor getExecutor();
+
+  /**
+   * @return a read-only {@link CompletionStage} completed with the {@link Attempt}.
+   */
+  CompletionStage<Attempt<R, E>> toCompletionStage();
+
+  /**
+   * Waits for the completion of this {@link AsyncAttempt}.
+   *
+   * @return the completed {@link Attempt}.
+   * @throws java.util.concurrent.CompletionException if a transformation function has thrown an exception.
+   */
+  Attempt<R, E> join();
+
+  /**
+   * @param executor the {@link Executor} on which to run the following stages.
+   * @return an {@link AsyncAttempt} completed with the same {@link Attempt}.
+   */
+  AsyncAttempt<R, E> withExecutor(@NonNull Executor executor);
+
+  /**
+   * @param timeout      the maximum duration to wait for this stage to complete.
+   * @param errorFactory a supplier of the error to fail with if the timeout elapses first.
+   * @return an {@link AsyncAttempt} completed with the {@link Attempt} of this stage, or with a failure on timeout.
+   * This stage itself is left running on timeout, as other stages may depend on it.
+   */
+  AsyncAttempt<R, E> withTimeout(@NonNull Duration timeout, @NonNull Supplier<? extends E> errorFactory);
+
+  /**
+   * @param transformer a function transforming the completed {@link Attempt}.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  <RR, EE> AsyncAttempt<RR, EE> flatMap(@NonNull Function<? super Attempt<R, E>, ? extends Attempt<? extends RR, ? extends EE>> transformer);
+
+  /**
+   * @param transformer a function producing an {@link AsyncAttempt}, called with the completed {@link Attempt}.
+   * @return an {@link AsyncAttempt} completed with the produced one.
+   */
+  <RR, EE> AsyncAttempt<RR, EE> flatMapAsync(@NonNull Function<? super Attempt<R, E>, ? extends AsyncAttempt<? extends RR, ? extends EE>> transformer);
+
+  /**
+   * @param resultConsumer a {@link Consumer} of result called if the {@link Attempt} is a success.
+   * @return an {@link AsyncAttempt} completed with the same {@link Attempt} once the consumer has been called.
+   */
+  default AsyncAttempt<R, E> ifSuccess(@NonNull Consumer<? super R> resultConsumer) {
+    return flatMap(attempt -> attempt.ifSuccess(resultConsumer));
+  }
+
+  /**
+   * @param errorConsumer a {@link Consumer} of error called if the {@link Attempt} is a failure.
+   * @return an {@link AsyncAttempt} completed with the same {@link Attempt} once the consumer has been called.
+   */
+  default AsyncAttempt<R, E> ifFailure(@NonNull Consumer<? super E> errorConsumer) {
+    return flatMap(attempt -> attempt.ifFailure(errorConsumer));
+  }
+
+  /**
+   * @param transformer a function producing an {@link Attempt}, called with the current result if the {@link Attempt} is a success.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  default <RR> AsyncAttempt<RR, E> transformResult(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends E>> transformer) {
+    return flatMap(attempt -> attempt.transformResult(transformer));
+  }
+
+  /**
+   * @param transformer a function producing an {@link AsyncAttempt}, called with the current result if the {@link Attempt} is a success.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  default <RR> AsyncAttempt<RR, E> transformResultAsync(@NonNull Function<? super R, ? extends AsyncAttempt<? extends RR, ? extends E>> transformer) {
+    return flatMapAsync(attempt -> attempt.isSuccess() ? transformer.apply(attempt.getResult()) : of(Attempt.failure(attempt.getError())));
+  }
+
+  /**
+   * @param mapper a function mapping the result if the {@link Attempt} is a success.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  default <RR> AsyncAttempt<RR, E> mapResult(@NonNull Function<? super R, ? extends RR> mapper) {
+    return flatMap(attempt -> attempt.mapResult(mapper));
+  }
+
+  /**
+   * @param recoverer a function producing an {@link Attempt}, called with the current error if the {@link Attempt} is a failure.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  default <EE> AsyncAttempt<R, EE> recoverError(@NonNull Function<? super E, ? extends Attempt<? extends R, ? extends EE>> recoverer) {
+    return flatMap(attempt -> attempt.recoverError(recoverer));
+  }
+
+  /**
+   * @param recoverer a function producing an {@link AsyncAttempt}, called with the current error if the {@link Attempt} is a failure.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  default <EE> AsyncAttempt<R, EE> recoverErrorAsync(@NonNull Function<? super E, ? extends AsyncAttempt<? extends R, ? extends EE>> recoverer) {
+    return flatMapAsync(attempt -> attempt.isFailure() ? recoverer.apply(attempt.getError()) : of(Attempt.success(attempt.getResult())));
+  }
+
+  /**
+   * @param mapper a function mapping the error if the {@link Attempt} is a failure.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  default <EE> AsyncAttempt<R, EE> mapError(@NonNull Function<? super E, ? extends EE> mapper) {
+    return flatMap(attempt -> attempt.mapError(mapper));
+  }
+
+  /**
+   * @param resultTransformer a function producing an {@link Attempt}, called with the current result if the {@link Attempt} is a success.
+   * @param errorTransformer  a function producing an {@link Attempt}, called with the current error if the {@link Attempt} is a failure.
+   * @return the transformed {@link AsyncAttempt}.
+   */
+  default <RR, EE> AsyncAttempt<RR, EE> transform(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends EE>> resultTransformer,
+                                                  @NonNull Function<? super E, ? extends Attempt<? extends RR, ? extends EE>> errorTransformer) {
+    return flatMap(attempt -> attempt.transform(resultTransformer, errorTransformer));
+  }
+
+  /**
+   * @param attempt an already completed {@link Attempt}.
+   * @return an {@link AsyncAttempt} completed with the supplied {@link Attempt}, running its stages on the default executor.
+   */
+  static <R, E> AsyncAttempt<R, E> of(@NonNull Attempt<? extends R, ? extends E> attempt) {
+    return of(attempt, defaultExecutor());
+  }
+
+  /**
+   * @param attempt  an already completed {@link Attempt}.
+   * @param executor the {@link Executor} on which to run the following stages.
+   * @return an {@link AsyncAttempt} completed with the supplied {@link Attempt}.
+   */
+  @SuppressWarnings("unchecked")
+  static <R, E> AsyncAttempt<R, E> of(@NonNull Attempt<? extends R, ? extends E> attempt, @NonNull Executor executor) {
+    //noinspection unchecked
+    return new FutureAttempt<>(CompletableFuture.completedFuture((Attempt<R, E>) attempt), executor);
+  }
+
+  /**
+   * @param supplier a {@code Supplier} that may throw an {@link Throwable}, run on the default executor.
+   * @return an {@link AsyncAttempt} wrapping either the result of the execution of the supplier or any thrown {@link Throwable}.
+   */
+  static <R, E extends Throwable> AsyncAttempt<R, E> attempt(@NonNull ThrowingSupplier<? extends R, ? extends E> supplier) {
+    return attempt(supplier, defaultExecutor());
+  }
+
+  /**
+   * @param supplier a {@code Supplier} that may throw an {@link Throwable}.
+   * @param executor the {@link Executor} on which to run the supplier and the following stages.
+   * @return an {@link AsyncAttempt} wrapping either the result of the execution of the supplier or any thrown {@link Throwable}.
+   */
+  static <R, E extends Throwable> AsyncAttempt<R, E> attempt(@NonNull ThrowingSupplier<? extends R, ? extends E> supplier, @NonNull Executor executor) {
+    return new FutureAttempt<>(CompletableFuture.supplyAsync(() -> Attempt.attempt(supplier), executor), executor);
+  }
+
+  /**
+   * @param stage    a {@link CompletionStage} of {@link Attempt}.
+   * @param executor the {@link Executor} on which to run the following stages.
+   * @return an {@link AsyncAttempt} completed with the {@link Attempt} of the stage.
+   */
+  @SuppressWarnings("unchecked")
+  static <R, E> AsyncAttempt<R, E> fromAttemptStage(@NonNull CompletionStage<? extends Attempt<? extends R, ? extends E>> stage, @NonNull Executor executor) {
+    //noinspection unchecked
+    return new FutureAttempt<>(stage.thenApply(attempt -> (Attempt<R, E>) attempt).toCompletableFuture(), executor);
+  }
+
+  /**
+   * @param stage       a {@link CompletionStage} which may complete exceptionally.
+   * @param errorMapper a function mapping the {@link Throwable} of an exceptional completion to an error.
+   * @param executor    the {@link Executor} on which to run the following stages.
+   * @return an {@link AsyncAttempt} wrapping either the result of the stage or the mapped error.
+   */
+  static <R, E> AsyncAttempt<R, E> fromStage(@NonNull CompletionStage<? extends R> stage,
+                                             @NonNull Function<? super Throwable, ? extends E> errorMapper,
+                                             @NonNull Executor executor) {
+    return new FutureAttempt<>(stage.<Attempt<R, E>>handle((result, throwable) -> throwable == null
+      ? Attempt.success(result)
+      : Attempt.failure(errorMapper.apply(FutureAttempt.unwrap(throwable)))).toCompletableFuture(), executor);
+  }
+
+  /**
+   * @return an {@link Executor} starting a new virtual thread per task if supported by the runtime,
+   * or the common {@link java.util.concurrent.ForkJoinPool} otherwise.
+   */
+  static Executor defaultExecutor() {
+    return FutureAttempt.DEFAULT_EXECUTOR;
+  }
+}
@@ -18,13 +18,22 @@
 
 package org.pacien.lemonad.attempt;
 
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import lombok.NonNull;
 
 /**
  * Wraps either a value from a success or an error from a failure.
+ * Two {@link Attempt}s are equal if they are both successes with equal results or both failures with equal errors,
+ * whatever their implementation.
  *
  * @param <R> the potential wrapped result type.
  * @param <E> the potential error type.
@@ -75,6 +84,7 @@ public interface Attempt<R, E> {
    * @param transformer a function producing an {@link Attempt}, called with the current result if this {@link Attempt} is a success.
    * @return this {@link Attempt} if it is a failure, or the produced one otherwise.
    */
+  @SuppressWarnings("unchecked")
   default <RR> Attempt<RR, E> transformResult(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends E>> transformer) {
     //noinspection unchecked
     return (Attempt<RR, E>) (isSuccess() ? transformer.apply(getResult()) : this);
@@ -98,10 +108,35 @@ public interface Attempt<R, E> {
     return transformResult(mapper.andThen(Attempt::success));
   }
 
+  /**
+   * @param mapper a function mapping the result to an {@code int} if this {@link Attempt} is a success.
+   * @return an {@link IntAttempt} with the mapped result, or with the error of this {@link Attempt}.
+   */
+  default IntAttempt<E> mapResultToInt(@NonNull ToIntFunction<? super R> mapper) {
+    return isSuccess() ? IntAttempt.success(mapper.applyAsInt(getResult())) : IntAttempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code long} if this {@link Attempt} is a success.
+   * @return a {@link LongAttempt} with the mapped result, or with the error of this {@link Attempt}.
+   */
+  default LongAttempt<E> mapResultToLong(@NonNull ToLongFunction<? super R> mapper) {
+    return isSuccess() ? LongAttempt.success(mapper.applyAsLong(getResult())) : LongAttempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code double} if this {@link Attempt} is a success.
+   * @return a {@link DoubleAttempt} with the mapped result, or with the error of this {@link Attempt}.
+   */
+  default DoubleAttempt<E> mapResultToDouble(@NonNull ToDoubleFunction<? super R> mapper) {
+    return isSuccess() ? DoubleAttempt.success(mapper.applyAsDouble(getResult())) : DoubleAttempt.failure(getError());
+  }
+
   /**
    * @param recoverer a function producing an {@link Attempt}, called with the current error if this {@link Attempt} is a failure.
    * @return this {@link Attempt} if it is a success, or the alternative {@link Attempt} retrieved from the supplier otherwise.
    */
+  @SuppressWarnings("unchecked")
   default <EE> Attempt<R, EE> recoverError(@NonNull Function<? super E, ? extends Attempt<? extends R, ? extends EE>> recoverer) {
     //noinspection unchecked
     return (Attempt<R, EE>) (isFailure() ? recoverer.apply(getError()) : this);
@@ -130,6 +165,7 @@ public interface Attempt<R, E> {
    * @param errorTransformer  a function producing an {@link Attempt}, called with the current error if this {@link Attempt} is a failure.
    * @return the transformed {@link Attempt}.
    */
+  @SuppressWarnings("unchecked")
   default <RR, EE> Attempt<RR, EE> transform(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends EE>> resultTransformer,
                                              @NonNull Function<? super E, ? extends Attempt<? extends RR, ? extends EE>> errorTransformer) {
     //noinspection unchecked
@@ -140,6 +176,7 @@ public interface Attempt<R, E> {
    * @param mapper a function transforming an {@link Attempt}.
    * @return the transformed {@link Attempt}.
    */
+  @SuppressWarnings("unchecked")
   default <RR, EE> Attempt<RR, EE> flatMap(@NonNull Function<? super Attempt<? super R, ? super E>, ? extends Attempt<? extends RR, ? extends EE>> mapper) {
     //noinspection unchecked
     return (Attempt<RR, EE>) mapper.apply(this);
@@ -161,10 +198,27 @@ public interface Attempt<R, E> {
     return new Failure<>(error);
   }
 
+  /**
+   * @param supplier a {@link Supplier} of {@link Attempt}, called at most once when the outcome is first needed.
+   * @return an {@link Attempt} lazily evaluated and memoized, whose combinators stay lazy until their outcome is read.
+   */
+  static <R, E> Attempt<R, E> lazy(@NonNull Supplier<? extends Attempt<? extends R, ? extends E>> supplier) {
+    return new LazyAttempt<>(supplier);
+  }
+
+  /**
+   * @param supplier a {@code Supplier} that may throw an {@link Throwable}, called at most once when the outcome is first needed.
+   * @return an {@link Attempt} lazily wrapping either the result of the execution of the supplier or any thrown {@link Throwable}.
+   */
+  static <R, E extends Throwable> Attempt<R, E> lazyAttempt(@NonNull ThrowingSupplier<? extends R, ? extends E> supplier) {
+    return lazy(() -> attempt(supplier));
+  }
+
   /**
    * @param supplier a {@code Supplier} that may throw an {@link Throwable}.
    * @return an {@link Attempt} wrapping either the result of the execution of the supplier or any thrown {@link Throwable}.
    */
+  @SuppressWarnings("unchecked")
   static <R, E extends Throwable> Attempt<R, E> attempt(@NonNull ThrowingSupplier<? extends R, ? extends E> supplier) {
     try {
       return success(supplier.get());
@@ -173,4 +227,79 @@ public interface Attempt<R, E> {
       return (Attempt<R, E>) failure(throwable);
     }
   }
+
+  /**
+   * @param supplier      a {@code Supplier} that may throw an {@link Throwable}.
+   * @param exceptionType the type of {@link Throwable} to catch, any other one being propagated.
+   * @param errorMapper   a function mapping a caught {@link Throwable} to an error.
+   * @return an {@link Attempt} wrapping either the result of the execution of the supplier or the mapped error.
+   * @throws IllegalStateException wrapping any checked {@link Throwable} of another type sneakily thrown by the supplier.
+   */
+  static <R, X extends Throwable, E> Attempt<R, E> attempt(@NonNull ThrowingSupplier<? extends R, ? extends X> supplier,
+                                                           @NonNull Class<X> exceptionType,
+                                                           @NonNull Function<? super X, ? extends E> errorMapper) {
+    try {
+      return success(supplier.get());
+    } catch (Throwable throwable) {
+      if (exceptionType.isInstance(throwable)) return failure(errorMapper.apply(exceptionType.cast(throwable)));
+      if (throwable instanceof RuntimeException) throw (RuntimeException) throwable;
+      if (throwable instanceof Error) throw (Error) throwable;
+      throw new IllegalStateException(throwable);
+    }
+  }
+
+  /**
+   * Runs suppliers concurrently, cancelling all the remaining ones as soon as one of them fails.
+   *
+   * @param suppliers      the suppliers to run.
+   * @param executor       the {@link Executor} on which to run the suppliers.
+   * @param maxConcurrency the maximum number of suppliers running at the same time.
+   * @return a successful {@link Attempt} with the results listed in the order of their suppliers,
+   * or a failed one with the errors of the suppliers which failed before the cancellation.
+   * @throws CompletionException wrapping the {@link InterruptedException} if the calling thread is interrupted while waiting,
+   *                             in which case its interrupt status is restored and the suppliers are cancelled.
+   */
+  static <R, E extends Throwable> Attempt<List<R>, List<E>> all(
+    @NonNull List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers,
+    @NonNull Executor executor,
+    int maxConcurrency
+  ) {
+    return ConcurrentAttempts.all(suppliers, executor, maxConcurrency);
+  }
+
+  /**
+   * Runs suppliers concurrently, cancelling all the remaining ones as soon as one of them succeeds.
+   *
+   * @param suppliers      the suppliers to run.
+   * @param executor       the {@link Executor} on which to run the suppliers.
+   * @param maxConcurrency the maximum number of suppliers running at the same time.
+   * @return a successful {@link Attempt} with the first result, or a failed one with all the errors listed in the order of their suppliers.
+   * @throws CompletionException wrapping the {@link InterruptedException} if the calling thread is interrupted while waiting,
+   *                             in which case its interrupt status is restored and the suppliers are cancelled.
+   */
+  static <R, E extends Throwable> Attempt<R, List<E>> any(
+    @NonNull List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers,
+    @NonNull Executor executor,
+    int maxConcurrency
+  ) {
+    return ConcurrentAttempts.any(suppliers, executor, maxConcurrency);
+  }
+
+  /**
+   * Runs suppliers concurrently, cancelling all the remaining ones as soon as one of them completes.
+   *
+   * @param suppliers      the non-empty list of suppliers to run.
+   * @param executor       the {@link Executor} on which to run the suppliers.
+   * @param maxConcurrency the maximum number of suppliers running at the same time.
+   * @return the {@link Attempt} of the first supplier to complete.
+   * @throws CompletionException wrapping the {@link InterruptedException} if the calling thread is interrupted while waiting,
+   *                             in which case its interrupt status is restored and the suppliers are cancelled.
+   */
+  static <R, E extends Throwable> Attempt<R, E> race(
+    @NonNull List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers,
+    @NonNull Executor executor,
+    int maxConcurrency
+  ) {
+    return ConcurrentAttempts.race(suppliers, executor, maxConcurrency);
+  }
 }
@@ -0,0 +1,382 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+import lombok.NonNull;
+
+/**
+ * Immutable batch of {@link Attempt} outcomes stored as a structure of arrays.
+ * <p>
+ * The results are held in a single array, the outcomes in a {@link BitSet} of failures,
+ * and the errors in a sparse array sorted by index, so that no object is allocated per outcome.
+ * Bulk operations loop over those arrays and share the unaffected ones with the batch they are derived from.
+ *
+ * @param <R> the result type.
+ * @param <E> the error type.
+ * @author pacien
+ */
+public final class AttemptBatch<R, E> {
+  private final int size;
+  private final Object[] results;
+  private final BitSet failures;
+  private final int[] errorIndices;
+  private final Object[] errors;
+
+  private AttemptBatch(int size, Object[] results, BitSet failures, int[] errorIndices, Object[] errors) {
+    this.size = size;
+    this.results = results;
+    this.failures = failures;
+    this.errorIndices = errorIndices;
+    this.errors = errors;
+  }
+
+  /**
+   * @param attempts the {@link Attempt}s to store.
+   * @return an {@link AttemptBatch} holding the outcomes of the supplied {@link Attempt}s, in the same order.
+   */
+  public static <R, E> AttemptBatch<R, E> of(@NonNull List<? extends Attempt<? extends R, ? extends E>> attempts) {
+    var builder = new Builder<R, E>(attempts.size());
+    var index = 0;
+    for (var attempt : attempts) {
+      if (attempt.isSuccess()) builder.success(index++, attempt.getResult());
+      else builder.failure(index++, attempt.getError());
+    }
+    return builder.build();
+  }
+
+  /**
+   * @param inputs   the inputs to which to apply the function.
+   * @param function a function that may throw an {@link Throwable}.
+   * @return an {@link AttemptBatch} wrapping, for each input, either the result of the function or any thrown {@link Throwable}.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T, R, E extends Throwable> AttemptBatch<R, E> attempt(@NonNull List<? extends T> inputs,
+                                                                      @NonNull ThrowingFunction<? super T, ? extends R, ? extends E> function) {
+    var builder = new Builder<R, E>(inputs.size());
+    var index = 0;
+    for (var input : inputs) {
+      try {
+        builder.success(index, function.apply(input));
+      } catch (Throwable throwable) {
+        //noinspection unchecked
+        builder.failure(index, (E) throwable);
+      }
+      index++;
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the number of outcomes in the batch.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of successful outcomes in the batch.
+   */
+  public int getSuccessCount() {
+    return size - errors.length;
+  }
+
+  /**
+   * @return the number of failed outcomes in the batch.
+   */
+  public int getFailureCount() {
+    return errors.length;
+  }
+
+  /**
+   * @param index the index of an outcome.
+   * @return whether the outcome at the given index is successful.
+   */
+  public boolean isSuccess(int index) {
+    return !isFailure(index);
+  }
+
+  /**
+   * @param index the index of an outcome.
+   * @return whether the outcome at the given index is failed.
+   */
+  public boolean isFailure(int index) {
+    return failures.get(checkIndex(index));
+  }
+
+  /**
+   * @param index the index of an outcome.
+   * @return the outcome at the given index.
+   */
+  public Attempt<R, E> get(int index) {
+    return isFailure(index) ? Attempt.failure(error(index)) : Attempt.success(result(index));
+  }
+
+  /**
+   * @return a {@link List} of all the results of the successful outcomes, in index order.
+   */
+  public List<R> getSuccesses() {
+    var successes = new Object[getSuccessCount()];
+    var cursor = 0;
+    for (var index = nextSuccess(0); index < size; index = nextSuccess(index + 1)) successes[cursor++] = results[index];
+    return new ArrayView<>(successes);
+  }
+
+  /**
+   * @return a {@link List} of all the errors of the failed outcomes, in index order.
+   */
+  public List<E> getFailures() {
+    return new ArrayView<>(errors);
+  }
+
+  /**
+   * @return the indices of the failed outcomes, in increasing order.
+   */
+  public int[] getFailureIndices() {
+    return errorIndices.clone();
+  }
+
+  /**
+   * @return a {@link List} of the outcomes as {@link Attempt}s, materialised on access.
+   */
+  public List<Attempt<R, E>> toAttempts() {
+    return new AttemptView();
+  }
+
+  /**
+   * @return the results and errors of the batch, each in index order.
+   */
+  public PartitionedAttempts<R, E> partition() {
+    return new PartitionContainer<>(getSuccesses(), getFailures());
+  }
+
+  /**
+   * @param resultConsumer a {@link Consumer} called with each result of the successful outcomes, in index order.
+   * @return the current {@link AttemptBatch}.
+   */
+  public AttemptBatch<R, E> ifSuccess(@NonNull Consumer<? super R> resultConsumer) {
+    for (var index = nextSuccess(0); index < size; index = nextSuccess(index + 1)) resultConsumer.accept(result(index));
+    return this;
+  }
+
+  /**
+   * @param resultConsumer a consumer called with each result of the successful outcomes and its index, in index order.
+   * @return the current {@link AttemptBatch}.
+   */
+  public AttemptBatch<R, E> ifSuccessIndexed(@NonNull ObjIntConsumer<? super R> resultConsumer) {
+    for (var index = nextSuccess(0); index < size; index = nextSuccess(index + 1)) resultConsumer.accept(result(index), index);
+    return this;
+  }
+
+  /**
+   * @param errorConsumer a {@link Consumer} called with each error of the failed outcomes, in index order.
+   * @return the current {@link AttemptBatch}.
+   */
+  @SuppressWarnings("unchecked")
+  public AttemptBatch<R, E> ifFailure(@NonNull Consumer<? super E> errorConsumer) {
+    for (var error : errors) {
+      //noinspection unchecked
+      errorConsumer.accept((E) error);
+    }
+    return this;
+  }
+
+  /**
+   * @param mapper a function mapping each result of the successful outcomes.
+   * @return an {@link AttemptBatch} with the mapped results and the same errors.
+   */
+  public <RR> AttemptBatch<RR, E> mapResult(@NonNull Function<? super R, ? extends RR> mapper) {
+    var mapped = new Object[size];
+    for (var index = nextSuccess(0); index < size; index = nextSuccess(index + 1)) mapped[index] = mapper.apply(result(index));
+    return new AttemptBatch<>(size, mapped, failures, errorIndices, errors);
+  }
+
+  /**
+   * @param transformer a function producing an {@link Attempt} from each result of the successful outcomes.
+   * @return an {@link AttemptBatch} with the produced outcomes, and the same errors for the failed ones.
+   */
+  public <RR> AttemptBatch<RR, E> transformResult(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends E>> transformer) {
+    var builder = new Builder<RR, E>(size, errors.length);
+    for (var index = 0; index < size; index++) {
+      if (failures.get(index)) {
+        builder.failure(index, error(index));
+      } else {
+        var attempt = transformer.apply(result(index));
+        if (attempt.isSuccess()) builder.success(index, attempt.getResult());
+        else builder.failure(index, attempt.getError());
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * @param mapper a function mapping each error of the failed outcomes.
+   * @return an {@link AttemptBatch} with the same results and the mapped errors.
+   */
+  @SuppressWarnings("unchecked")
+  public <EE> AttemptBatch<R, EE> mapError(@NonNull Function<? super E, ? extends EE> mapper) {
+    var mapped = new Object[errors.length];
+    for (var cursor = 0; cursor < errors.length; cursor++) {
+      //noinspection unchecked
+      mapped[cursor] = mapper.apply((E) errors[cursor]);
+    }
+    return new AttemptBatch<>(size, results, failures, errorIndices, mapped);
+  }
+
+  /**
+   * @param recoverer a function producing an {@link Attempt} from each error of the failed outcomes.
+   * @return an {@link AttemptBatch} with the same results for the successful outcomes, and the produced ones otherwise.
+   */
+  public <EE> AttemptBatch<R, EE> recoverError(@NonNull Function<? super E, ? extends Attempt<? extends R, ? extends EE>> recoverer) {
+    if (errors.length == 0) return new AttemptBatch<>(size, results, failures, errorIndices, errors);
+
+    var recovered = results.clone();
+    var remainingFailures = new BitSet(size);
+    var builder = new SparseErrors(errors.length);
+    for (var cursor = 0; cursor < errors.length; cursor++) {
+      var index = errorIndices[cursor];
+      //noinspection unchecked
+      @SuppressWarnings("unchecked")
+      var attempt = recoverer.apply((E) errors[cursor]);
+      if (attempt.isSuccess()) {
+        recovered[index] = attempt.getResult();
+      } else {
+        remainingFailures.set(index);
+        builder.add(index, attempt.getError());
+      }
+    }
+    return new AttemptBatch<>(size, recovered, remainingFailures, builder.trimmedIndices(), builder.trimmedErrors());
+  }
+
+  private int nextSuccess(int fromIndex) {
+    return failures.nextClearBit(fromIndex);
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    return index;
+  }
+
+  @SuppressWarnings("unchecked")
+  private R result(int index) {
+    //noinspection unchecked
+    return (R) results[index];
+  }
+
+  @SuppressWarnings("unchecked")
+  private E error(int index) {
+    //noinspection unchecked
+    return (E) errors[Arrays.binarySearch(errorIndices, index)];
+  }
+
+  private final class AttemptView extends AbstractList<Attempt<R, E>> implements RandomAccess {
+    @Override public Attempt<R, E> get(int index) {
+      return AttemptBatch.this.get(index);
+    }
+
+    @Override public int size() {
+      return size;
+    }
+  }
+
+  private static final class ArrayView<T> extends AbstractList<T> implements RandomAccess {
+    private final Object[] elements;
+
+    private ArrayView(Object[] elements) {
+      this.elements = elements;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override public T get(int index) {
+      //noinspection unchecked
+      return (T) elements[index];
+    }
+
+    @Override public int size() {
+      return elements.length;
+    }
+  }
+
+  private static final class SparseErrors {
+    private int[] indices;
+    private Object[] errors;
+    private int count;
+
+    private SparseErrors(int expectedCount) {
+      this.indices = new int[Math.max(expectedCount, 8)];
+      this.errors = new Object[indices.length];
+    }
+
+    private void add(int index, Object error) {
+      if (count == indices.length) {
+        indices = Arrays.copyOf(indices, count * 2);
+        errors = Arrays.copyOf(errors, count * 2);
+      }
+      indices[count] = index;
+      errors[count++] = error;
+    }
+
+    private int[] trimmedIndices() {
+      return indices.length == count ? indices : Arrays.copyOf(indices, count);
+    }
+
+    private Object[] trimmedErrors() {
+      return errors.length == count ? errors : Arrays.copyOf(errors, count);
+    }
+  }
+
+  private static final class Builder<R, E> {
+    private final int size;
+    private final Object[] results;
+    private final BitSet failures;
+    private final SparseErrors errors;
+
+    private Builder(int size) {
+      this(size, 0);
+    }
+
+    private Builder(int size, int expectedFailures) {
+      this.size = size;
+      this.results = new Object[size];
+      this.failures = new BitSet(size);
+      this.errors = new SparseErrors(expectedFailures);
+    }
+
+    private void success(int index, Object result) {
+      results[index] = result;
+    }
+
+    private void failure(int index, Object error) {
+      failures.set(index);
+      errors.add(index, error);
+    }
+
+    private AttemptBatch<R, E> build() {
+      return new AttemptBatch<>(size, results, failures, errors.trimmedIndices(), errors.trimmedErrors());
+    }
+  }
+}
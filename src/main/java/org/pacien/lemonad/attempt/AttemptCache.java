@@ -0,0 +1,280 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import lombok.NonNull;
+
+/**
+ * Size-bounded memoizing wrapper of a function returning {@link Attempt}s.
+ * <p>
+ * Successes and failures are retained for distinct durations, a zero duration disabling their caching.
+ * Concurrent misses on the same key share a single call to the loader.
+ * When the cache is full, the oldest entry is evicted unless it has been read since it was last considered,
+ * in which case it is given a second chance, and unless the newly loaded entry has been requested less frequently,
+ * in which case that new entry is dropped instead.
+ *
+ * @param <K> the key type.
+ * @param <V> the result type.
+ * @param <E> the error type.
+ * @author pacien
+ */
+public final class AttemptCache<K, V, E> implements Function<K, Attempt<V, E>> {
+  private final Function<? super K, ? extends Attempt<? extends V, ? extends E>> loader;
+  private final int maxSize;
+  private final long successTtlNanos;
+  private final long failureTtlNanos;
+  private final LongSupplier nanoClock;
+
+  private final ConcurrentHashMap<K, Entry<K, V, E>> entries = new ConcurrentHashMap<>();
+  private final Queue<Entry<K, V, E>> insertionQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final FrequencySketch sketch;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder joins = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private AttemptCache(Function<? super K, ? extends Attempt<? extends V, ? extends E>> loader,
+                       int maxSize, long successTtlNanos, long failureTtlNanos, LongSupplier nanoClock) {
+    this.loader = loader;
+    this.maxSize = maxSize;
+    this.successTtlNanos = successTtlNanos;
+    this.failureTtlNanos = failureTtlNanos;
+    this.nanoClock = nanoClock;
+    this.sketch = new FrequencySketch(maxSize);
+  }
+
+  /**
+   * @param loader     the function producing the {@link Attempt} for a key on cache miss.
+   * @param maxSize    the maximum number of entries to retain.
+   * @param successTtl the duration for which successful {@link Attempt}s are retained.
+   * @param failureTtl the duration for which failed {@link Attempt}s are retained.
+   * @return an {@link AttemptCache} wrapping the loader.
+   */
+  public static <K, V, E> AttemptCache<K, V, E> of(@NonNull Function<? super K, ? extends Attempt<? extends V, ? extends E>> loader,
+                                                   int maxSize, @NonNull Duration successTtl, @NonNull Duration failureTtl) {
+    return of(loader, maxSize, successTtl, failureTtl, System::nanoTime);
+  }
+
+  /**
+   * @param loader     the function producing the {@link Attempt} for a key on cache miss.
+   * @param maxSize    the maximum number of entries to retain.
+   * @param successTtl the duration for which successful {@link Attempt}s are retained.
+   * @param failureTtl the duration for which failed {@link Attempt}s are retained.
+   * @param nanoClock  the monotonic time source in nanoseconds, such as {@link System#nanoTime()}.
+   * @return an {@link AttemptCache} wrapping the loader.
+   */
+  public static <K, V, E> AttemptCache<K, V, E> of(@NonNull Function<? super K, ? extends Attempt<? extends V, ? extends E>> loader,
+                                                   int maxSize, @NonNull Duration successTtl, @NonNull Duration failureTtl,
+                                                   @NonNull LongSupplier nanoClock) {
+    if (maxSize < 1) throw new IllegalArgumentException("The maximum size must be positive.");
+    if (successTtl.isNegative() || failureTtl.isNegative()) throw new IllegalArgumentException("The retention durations must not be negative.");
+    return new AttemptCache<>(loader, maxSize, saturatedNanos(successTtl), saturatedNanos(failureTtl), nanoClock);
+  }
+
+  /**
+   * @param key the key to look up.
+   * @return the cached {@link Attempt} for the key, or the one produced by the loader.
+   */
+  @Override public Attempt<V, E> apply(@NonNull K key) {
+    sketch.increment(key);
+
+    for (; ; ) {
+      var entry = entries.get(key);
+      if (entry != null) {
+        if (!entry.isExpired(nanoClock.getAsLong())) {
+          if (entry.future.isDone()) hits.increment();
+          else joins.increment();
+          entry.referenced = true;
+          return FutureAttempt.joinUnwrapped(entry.future);
+        }
+
+        remove(entry);
+        continue;
+      }
+
+      var loading = new Entry<K, V, E>(key);
+      if (entries.putIfAbsent(key, loading) != null) continue;
+      size.incrementAndGet();
+      misses.increment();
+      return load(loading);
+    }
+  }
+
+  /**
+   * Discards the entry of a key, if any.
+   */
+  public void invalidate(@NonNull K key) {
+    var entry = entries.get(key);
+    if (entry != null) remove(entry);
+  }
+
+  /**
+   * @return the number of entries currently retained, including the ones being loaded.
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * @return the number of lookups served from the cache with an already loaded entry.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups which called the loader.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of lookups which waited for the concurrent loading of the same key, sharing its call to the loader.
+   */
+  public long getJoinCount() {
+    return joins.sum();
+  }
+
+  /**
+   * @return the ratio of lookups served from the cache with an already loaded entry, or zero if there has been none.
+   */
+  public double getHitRate() {
+    var hitCount = getHitCount();
+    var total = hitCount + getMissCount() + getJoinCount();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * @return the number of entries discarded to keep the cache within its maximum size.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Attempt<V, E> load(Entry<K, V, E> entry) {
+    Attempt<V, E> attempt;
+    try {
+      //noinspection unchecked
+      attempt = Objects.requireNonNull((Attempt<V, E>) loader.apply(entry.key), "The loader returned a null attempt.");
+    } catch (RuntimeException | Error throwable) {
+      remove(entry);
+      entry.future.completeExceptionally(throwable);
+      throw throwable;
+    }
+
+    var ttl = attempt.isSuccess() ? successTtlNanos : failureTtlNanos;
+    entry.expiresAt = nanoClock.getAsLong() + ttl;
+    entry.future.complete(attempt);
+
+    if (ttl == 0) {
+      remove(entry);
+    } else {
+      insertionQueue.add(entry);
+      queued.incrementAndGet();
+      maintain(entry);
+    }
+
+    return attempt;
+  }
+
+  private void maintain(Entry<K, V, E> candidate) {
+    if (!evictionLock.tryLock()) return;
+    try {
+      var now = nanoClock.getAsLong();
+      for (var budget = 2 * queued.get(); budget > 0 && (size.get() > maxSize || queued.get() > 2 * maxSize); budget--) {
+        var node = insertionQueue.poll();
+        if (node == null) break;
+        queued.decrementAndGet();
+        if (entries.get(node.key) != node) continue;
+
+        if (node.isExpired(now)) {
+          remove(node);
+        } else if (size.get() <= maxSize || node.referenced) {
+          node.referenced = false;
+          requeue(node);
+        } else if (candidate != null && candidate != node && sketch.frequency(candidate.key) <= sketch.frequency(node.key)) {
+          if (evict(candidate)) candidate = null;
+          requeue(node);
+        } else {
+          evict(node);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void requeue(Entry<K, V, E> entry) {
+    insertionQueue.add(entry);
+    queued.incrementAndGet();
+  }
+
+  private boolean evict(Entry<K, V, E> entry) {
+    if (!remove(entry)) return false;
+    evictions.increment();
+    return true;
+  }
+
+  private boolean remove(Entry<K, V, E> entry) {
+    if (!entries.remove(entry.key, entry)) return false;
+    size.decrementAndGet();
+    return true;
+  }
+
+  private static long saturatedNanos(Duration duration) {
+    try {
+      return duration.toNanos();
+    } catch (ArithmeticException overflow) {
+      return Long.MAX_VALUE / 2;
+    }
+  }
+
+  private static final class Entry<K, V, E> {
+    private final K key;
+    private final CompletableFuture<Attempt<V, E>> future = new CompletableFuture<>();
+    private volatile long expiresAt;
+    private volatile boolean referenced;
+
+    private Entry(K key) {
+      this.key = key;
+    }
+
+    private boolean isExpired(long now) {
+      return future.isDone() && now - expiresAt >= 0;
+    }
+  }
+}
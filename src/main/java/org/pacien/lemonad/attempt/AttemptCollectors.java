@@ -0,0 +1,131 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import lombok.NonNull;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * {@link Collector}s and stream operations gathering many {@link Attempt}s.
+ * All the collectors are suitable for parallel streams, and preserve the encounter order of the elements.
+ *
+ * @author pacien
+ */
+public final class AttemptCollectors {
+  private AttemptCollectors() {
+  }
+
+  /**
+   * @return a {@link Collector} turning {@link Attempt}s into a successful {@link Attempt} listing all their results,
+   * or into the first failed {@link Attempt} in encounter order. No result is accumulated after a failure.
+   */
+  public static <R, E> Collector<Attempt<? extends R, ? extends E>, ?, Attempt<List<R>, E>> sequence() {
+    return Collector.of(
+      Sequence<R, E>::new,
+      Sequence::add,
+      Sequence::combine,
+      Sequence::finish);
+  }
+
+  /**
+   * @param mapper a function mapping each element to an {@link Attempt}.
+   * @return a {@link Collector} mapping elements to {@link Attempt}s and gathering them like {@link #sequence()}.
+   * Elements following a failure are not mapped.
+   */
+  public static <T, R, E> Collector<T, ?, Attempt<List<R>, E>> traverse(@NonNull Function<? super T, ? extends Attempt<? extends R, ? extends E>> mapper) {
+    return Collector.of(
+      Sequence<R, E>::new,
+      (Sequence<R, E> sequence, T element) -> sequence.add(element, mapper),
+      Sequence::combine,
+      Sequence::finish);
+  }
+
+  /**
+   * Gathers the {@link Attempt}s of a stream, stopping to pull elements from the stream at the first failure.
+   *
+   * @param attempts a sequential stream of {@link Attempt}s.
+   * @return a successful {@link Attempt} listing all the results, or the first failed {@link Attempt}.
+   */
+  public static <R, E> Attempt<List<R>, E> sequence(@NonNull Stream<? extends Attempt<? extends R, ? extends E>> attempts) {
+    var sequence = new Sequence<R, E>();
+    var spliterator = attempts.spliterator();
+    //noinspection StatementWithEmptyBody
+    while (sequence.failure == null && spliterator.tryAdvance(sequence::add)) ;
+    return sequence.finish();
+  }
+
+  /**
+   * @return a {@link Collector} partitioning {@link Attempt}s into their results and their errors.
+   */
+  public static <R, E> Collector<Attempt<? extends R, ? extends E>, ?, PartitionedAttempts<R, E>> partitioning() {
+    return partitioning(PartitionContainer::empty);
+  }
+
+  /**
+   * @param expectedSize the expected number of {@link Attempt}s per partition, used to presize the buffers.
+   * @return a {@link Collector} partitioning {@link Attempt}s into their results and their errors.
+   */
+  public static <R, E> Collector<Attempt<? extends R, ? extends E>, ?, PartitionedAttempts<R, E>> partitioning(int expectedSize) {
+    return partitioning(() -> PartitionContainer.withCapacity(expectedSize));
+  }
+
+  private static <R, E> Collector<Attempt<? extends R, ? extends E>, ?, PartitionedAttempts<R, E>> partitioning(
+    Supplier<PartitionContainer<R, E>> supplier
+  ) {
+    return Collector.of(
+      supplier,
+      PartitionContainer::add,
+      PartitionContainer::combine,
+      PartitionContainer::finish);
+  }
+
+  private static final class Sequence<R, E> {
+    private final List<R> results = new ArrayList<>();
+    private Attempt<List<R>, E> failure;
+
+    void add(Attempt<? extends R, ? extends E> attempt) {
+      if (failure != null) return;
+      if (attempt.isSuccess()) results.add(attempt.getResult());
+      else failure = Attempt.failure(attempt.getError());
+    }
+
+    <T> void add(T element, Function<? super T, ? extends Attempt<? extends R, ? extends E>> mapper) {
+      if (failure == null) add(mapper.apply(element));
+    }
+
+    Sequence<R, E> combine(Sequence<R, E> other) {
+      if (failure != null) return this;
+      results.addAll(other.results);
+      failure = other.failure;
+      return this;
+    }
+
+    Attempt<List<R>, E> finish() {
+      return failure != null ? failure : Attempt.success(unmodifiableList(results));
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import lombok.NonNull;
+
+/**
+ * A reusable sequence of {@link Attempt} transformations, defined once and applied to many inputs.
+ * The stages are fused into a single pass which does not wrap intermediate results or errors,
+ * allocating only the final {@link Attempt}, or nothing when its outcome is handed to consumers.
+ *
+ * @param <I> the input type.
+ * @param <R> the potential result type.
+ * @param <E> the potential error type.
+ * @author pacien
+ */
+public interface AttemptPipeline<I, R, E> extends Function<I, Attempt<R, E>> {
+  /**
+   * @param input the input of the pipeline, processed as a successful result.
+   * @return the resulting {@link Attempt}.
+   */
+  @Override Attempt<R, E> apply(I input);
+
+  /**
+   * @param attempt the input {@link Attempt} of the pipeline.
+   * @return the resulting {@link Attempt}.
+   */
+  Attempt<R, E> applyTo(@NonNull Attempt<? extends I, ? extends E> attempt);
+
+  /**
+   * @param input          the input of the pipeline, processed as a successful result.
+   * @param resultConsumer a {@link Consumer} of result called if the pipeline succeeds.
+   */
+  void ifSuccess(I input, @NonNull Consumer<? super R> resultConsumer);
+
+  /**
+   * @param input         the input of the pipeline, processed as a successful result.
+   * @param errorConsumer a {@link Consumer} of error called if the pipeline fails.
+   */
+  void ifFailure(I input, @NonNull Consumer<? super E> errorConsumer);
+
+  /**
+   * @param input          the input of the pipeline, processed as a successful result.
+   * @param resultConsumer a {@link Consumer} of result called if the pipeline succeeds.
+   * @param errorConsumer  a {@link Consumer} of error called if the pipeline fails.
+   */
+  void accept(I input, @NonNull Consumer<? super R> resultConsumer, @NonNull Consumer<? super E> errorConsumer);
+
+  /**
+   * @param transformer a function producing an {@link Attempt}, called with the current result on success.
+   * @return an extended {@link AttemptPipeline}.
+   * @see Attempt#transformResult(Function)
+   */
+  <RR> AttemptPipeline<I, RR, E> transformResult(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends E>> transformer);
+
+  /**
+   * @param transformer  a function producing an {@link Attempt}, called with the current result on success.
+   * @param errorAdapter a function adapting any intermediate error returned by the {@code transformer} function.
+   * @return an extended {@link AttemptPipeline}.
+   * @see Attempt#transformResult(Function, Function)
+   */
+  <RR, IE> AttemptPipeline<I, RR, E> transformResult(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends IE>> transformer,
+                                                     @NonNull Function<? super IE, ? extends E> errorAdapter);
+
+  /**
+   * @param mapper a function mapping the current result on success.
+   * @return an extended {@link AttemptPipeline}.
+   * @see Attempt#mapResult(Function)
+   */
+  <RR> AttemptPipeline<I, RR, E> mapResult(@NonNull Function<? super R, ? extends RR> mapper);
+
+  /**
+   * @param recoverer a function producing an {@link Attempt}, called with the current error on failure.
+   * @return an extended {@link AttemptPipeline}.
+   * @see Attempt#recoverError(Function)
+   */
+  <EE> AttemptPipeline<I, R, EE> recoverError(@NonNull Function<? super E, ? extends Attempt<? extends R, ? extends EE>> recoverer);
+
+  /**
+   * @param recoverer     a function producing an {@link Attempt}, called with the current error on failure.
+   * @param resultAdapter a function adapting any intermediate result returned by the {@code recoverer} function.
+   * @return an extended {@link AttemptPipeline}.
+   * @see Attempt#recoverError(Function, Function)
+   */
+  <IR, EE> AttemptPipeline<I, R, EE> recoverError(@NonNull Function<? super E, ? extends Attempt<? extends IR, ? extends EE>> recoverer,
+                                                  @NonNull Function<? super IR, ? extends R> resultAdapter);
+
+  /**
+   * @param mapper a function mapping the current error on failure.
+   * @return an extended {@link AttemptPipeline}.
+   * @see Attempt#mapError(Function)
+   */
+  <EE> AttemptPipeline<I, R, EE> mapError(@NonNull Function<? super E, ? extends EE> mapper);
+
+  /**
+   * @param resultTransformer a function producing an {@link Attempt}, called with the current result on success.
+   * @param errorTransformer  a function producing an {@link Attempt}, called with the current error on failure.
+   * @return an extended {@link AttemptPipeline}.
+   * @see Attempt#transform(Function, Function)
+   */
+  <RR, EE> AttemptPipeline<I, RR, EE> transform(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends EE>> resultTransformer,
+                                                @NonNull Function<? super E, ? extends Attempt<? extends RR, ? extends EE>> errorTransformer);
+
+  /**
+   * @return a pipeline without any stage, returning its input as a successful {@link Attempt}.
+   */
+  static <I, E> AttemptPipeline<I, I, E> of() {
+    return FusedPipeline.empty();
+  }
+}
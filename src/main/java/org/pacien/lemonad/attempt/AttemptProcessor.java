@@ -0,0 +1,242 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import lombok.NonNull;
+
+/**
+ * {@link Flow.Processor} mapping each element to an {@link Attempt}, forwarding the results to its subscriber
+ * and routing the errors to a separate dead-letter {@link Flow.Subscriber}.
+ * <p>
+ * Elements are requested from upstream in batches, and replenished once half of a batch has been consumed,
+ * so that at most one batch of elements is buffered or in flight at any time.
+ * Each output is only signalled within its own demand, a slow output eventually stalling the upstream.
+ * An output cancelling its subscription drops the elements routed to it, and the upstream subscription is cancelled
+ * once both outputs have cancelled theirs.
+ * Upstream completion and errors are signalled to both outputs once they have received all their buffered elements.
+ *
+ * @param <T> the upstream element type.
+ * @param <R> the result type, forwarded downstream.
+ * @param <E> the error type, routed to the dead-letter subscriber.
+ * @author pacien
+ */
+public final class AttemptProcessor<T, R, E> implements Flow.Processor<T, R> {
+  private final Function<? super T, ? extends Attempt<? extends R, ? extends E>> transformer;
+  private final int batchSize;
+  private final int replenishThreshold;
+  private final Output<R> results = new Output<>();
+  private final Output<E> deadLetters = new Output<>();
+  private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+  private final AtomicInteger wip = new AtomicInteger();
+  private volatile boolean done;
+  private volatile Throwable error;
+
+  // only accessed within the drain loop
+  private int consumed;
+  private boolean upstreamCancelled;
+
+  private AttemptProcessor(Function<? super T, ? extends Attempt<? extends R, ? extends E>> transformer, int batchSize) {
+    this.transformer = transformer;
+    this.batchSize = batchSize;
+    this.replenishThreshold = Math.max(1, batchSize >> 1);
+  }
+
+  /**
+   * @param transformer          a function mapping each element to an {@link Attempt}.
+   * @param deadLetterSubscriber the {@link Flow.Subscriber} receiving the errors, subscribed immediately.
+   * @param batchSize            the number of elements requested from upstream at once.
+   * @return an {@link AttemptProcessor}.
+   */
+  public static <T, R, E> AttemptProcessor<T, R, E> of(@NonNull Function<? super T, ? extends Attempt<? extends R, ? extends E>> transformer,
+                                                       @NonNull Flow.Subscriber<? super E> deadLetterSubscriber,
+                                                       int batchSize) {
+    if (batchSize < 1) throw new IllegalArgumentException("The batch size must be positive.");
+    var processor = new AttemptProcessor<T, R, E>(transformer, batchSize);
+    processor.attach(processor.deadLetters, deadLetterSubscriber);
+    return processor;
+  }
+
+  @Override public void subscribe(@NonNull Flow.Subscriber<? super R> subscriber) {
+    attach(results, subscriber);
+  }
+
+  @Override public void onSubscribe(@NonNull Flow.Subscription subscription) {
+    if (!upstream.compareAndSet(null, subscription)) {
+      subscription.cancel();
+      return;
+    }
+
+    subscription.request(batchSize);
+    drain();
+  }
+
+  @Override public void onNext(@NonNull T item) {
+    if (done) return;
+
+    Object value;
+    Output<?> output;
+    try {
+      var attempt = transformer.apply(item);
+      output = attempt.isSuccess() ? results : deadLetters;
+      value = Objects.requireNonNull(attempt.isSuccess() ? attempt.getResult() : attempt.getError(), "Flow elements must not be null.");
+    } catch (Throwable throwable) {
+      upstream.get().cancel();
+      onError(throwable);
+      return;
+    }
+
+    output.queue.offer(value);
+    drain();
+  }
+
+  @Override public void onError(@NonNull Throwable throwable) {
+    if (done) return;
+    error = throwable;
+    done = true;
+    drain();
+  }
+
+  @Override public void onComplete() {
+    if (done) return;
+    done = true;
+    drain();
+  }
+
+  private <O> void attach(Output<O> output, Flow.Subscriber<? super O> subscriber) {
+    if (!output.claimed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(new OutputSubscription(new Output<>()));
+      subscriber.onError(new IllegalStateException("This output only accepts a single subscriber."));
+      return;
+    }
+
+    subscriber.onSubscribe(new OutputSubscription(output));
+    output.subscriber = subscriber;
+    drain();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) return;
+
+    var missed = 1;
+    do {
+      var terminated = done;
+      consumed += results.drain() + deadLetters.drain();
+
+      var subscription = upstream.get();
+      if (subscription != null && !upstreamCancelled) {
+        if (results.cancelled && deadLetters.cancelled) {
+          upstreamCancelled = true;
+          subscription.cancel();
+        } else if (!terminated && consumed >= replenishThreshold) {
+          subscription.request(consumed);
+          consumed = 0;
+        }
+      }
+
+      if (terminated) {
+        results.terminate(error);
+        deadLetters.terminate(error);
+      }
+
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private static final class Output<O> {
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    // only published once its onSubscribe signal has returned, so that the drain loop never signals it concurrently
+    private volatile Flow.Subscriber<? super O> subscriber;
+    private final AtomicLong requested = new AtomicLong();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    // only accessed within the drain loop
+    private boolean terminated;
+
+    /**
+     * @return the number of elements removed from the queue, either signalled or dropped.
+     */
+    @SuppressWarnings("unchecked")
+    private int drain() {
+      var downstream = subscriber;
+      if (!terminated && downstream != null && invalidRequest != null) {
+        terminated = true;
+        cancelled = true;
+        downstream.onError(invalidRequest);
+      }
+
+      var removed = 0;
+      if (!cancelled && downstream != null) {
+        var demand = requested.get();
+        long emitted = 0;
+        while (emitted != demand && !cancelled) {
+          var item = queue.poll();
+          if (item == null) break;
+          //noinspection unchecked
+          downstream.onNext((O) item);
+          emitted++;
+        }
+
+        if (emitted != 0 && demand != Long.MAX_VALUE) requested.addAndGet(-emitted);
+        removed += (int) emitted;
+      }
+
+      if (cancelled) while (queue.poll() != null) removed++;
+      return removed;
+    }
+
+    private void terminate(Throwable error) {
+      var downstream = subscriber;
+      if (terminated || cancelled || downstream == null || !queue.isEmpty()) return;
+      terminated = true;
+      if (error != null) downstream.onError(error);
+      else downstream.onComplete();
+    }
+  }
+
+  private final class OutputSubscription implements Flow.Subscription {
+    private final Output<?> output;
+
+    private OutputSubscription(Output<?> output) {
+      this.output = output;
+    }
+
+    @Override public void request(long n) {
+      if (n <= 0) output.invalidRequest = new IllegalArgumentException("The requested amount must be positive (rule 3.9).");
+      else output.requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+      drain();
+    }
+
+    @Override public void cancel() {
+      output.cancelled = true;
+      drain();
+    }
+  }
+}
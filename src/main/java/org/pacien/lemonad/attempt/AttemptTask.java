@@ -0,0 +1,64 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+import lombok.NonNull;
+
+/**
+ * Cancellable task running a {@link ThrowingSupplier} into an {@link Attempt},
+ * which hands itself to a completion callback once done or cancelled.
+ *
+ * @author pacien
+ */
+final class AttemptTask<R, E extends Throwable> extends FutureTask<Attempt<R, E>> {
+  private final int index;
+  private final Consumer<? super AttemptTask<R, E>> completionCallback;
+
+  AttemptTask(int index, @NonNull ThrowingSupplier<? extends R, ? extends E> supplier, @NonNull Consumer<? super AttemptTask<R, E>> completionCallback) {
+    super(() -> Attempt.attempt(supplier));
+    this.index = index;
+    this.completionCallback = completionCallback;
+  }
+
+  /**
+   * @return the index of the supplier run by this task.
+   */
+  int getIndex() {
+    return index;
+  }
+
+  /**
+   * @return the {@link Attempt} of this completed and non-cancelled task.
+   */
+  Attempt<R, E> getAttempt() {
+    try {
+      return get();
+    } catch (InterruptedException | ExecutionException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override protected void done() {
+    completionCallback.accept(this);
+  }
+}
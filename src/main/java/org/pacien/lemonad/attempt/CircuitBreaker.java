@@ -0,0 +1,264 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+
+/**
+ * Circuit breaker short-circuiting the calls to a failing dependency.
+ * <p>
+ * While closed, the outcomes of the calls are counted in a sliding time window.
+ * Once the failure ratio over that window reaches a threshold, the breaker opens and immediately returns a
+ * preallocated failure instead of calling the supplier. After a cooldown, it becomes half-open and lets a limited
+ * number of trial calls through: the breaker closes again if all of them succeed, and reopens on the first failure.
+ * <p>
+ * The state is held in an immutable snapshot swapped atomically, and the window in striped counters, without any lock,
+ * so that the closed path only adds a few reads and a counter increment to each call.
+ * The window buckets are recycled without synchronisation, so a few outcomes may be lost at their boundaries.
+ *
+ * @param <E> the error type.
+ * @author pacien
+ */
+public final class CircuitBreaker<E> {
+  /**
+   * The states of a {@link CircuitBreaker}.
+   */
+  public enum State {CLOSED, OPEN, HALF_OPEN}
+
+  private static final int CLOSED = 0, OPEN = 1, HALF_OPEN = 2;
+  private static final int BUCKET_COUNT = 10;
+
+  private final Attempt<?, E> openFailure;
+  private final double failureRatioThreshold;
+  private final int minimumCalls;
+  private final long bucketNanos;
+  private final long cooldownNanos;
+  private final int trialCalls;
+  private final LongSupplier nanoClock;
+
+  private final AtomicReference<Circuit> circuit = new AtomicReference<>(new Circuit(CLOSED, 0, 0, 0, 0));
+  private final Bucket[] buckets = new Bucket[BUCKET_COUNT];
+  private final LongAdder rejections = new LongAdder();
+
+  private CircuitBreaker(E openError, double failureRatioThreshold, int minimumCalls, long windowNanos,
+                         long cooldownNanos, int trialCalls, LongSupplier nanoClock) {
+    this.openFailure = Attempt.failure(openError);
+    this.failureRatioThreshold = failureRatioThreshold;
+    this.minimumCalls = minimumCalls;
+    this.bucketNanos = Math.max(1, windowNanos / BUCKET_COUNT);
+    this.cooldownNanos = cooldownNanos;
+    this.trialCalls = trialCalls;
+    this.nanoClock = nanoClock;
+    for (var i = 0; i < BUCKET_COUNT; i++) buckets[i] = new Bucket();
+  }
+
+  /**
+   * @param openError             the error returned while the breaker is open.
+   * @param failureRatioThreshold the ratio of failed calls over the window above which the breaker opens, within (0, 1].
+   * @param minimumCalls          the minimum number of calls over the window before the breaker may open.
+   * @param window                the duration of the sliding window in which the calls are counted.
+   * @param cooldown              the time to stay open before letting trial calls through.
+   * @param trialCalls            the number of successful trial calls required to close the breaker again.
+   * @return a closed {@link CircuitBreaker}.
+   */
+  public static <E> CircuitBreaker<E> of(E openError, double failureRatioThreshold, int minimumCalls,
+                                         @NonNull Duration window, @NonNull Duration cooldown, int trialCalls) {
+    return of(openError, failureRatioThreshold, minimumCalls, window, cooldown, trialCalls, System::nanoTime);
+  }
+
+  /**
+   * @param openError             the error returned while the breaker is open.
+   * @param failureRatioThreshold the ratio of failed calls over the window above which the breaker opens, within (0, 1].
+   * @param minimumCalls          the minimum number of calls over the window before the breaker may open.
+   * @param window                the duration of the sliding window in which the calls are counted.
+   * @param cooldown              the time to stay open before letting trial calls through.
+   * @param trialCalls            the number of successful trial calls required to close the breaker again.
+   * @param nanoClock             the monotonic time source in nanoseconds, such as {@link System#nanoTime()}.
+   * @return a closed {@link CircuitBreaker}.
+   */
+  public static <E> CircuitBreaker<E> of(E openError, double failureRatioThreshold, int minimumCalls,
+                                         @NonNull Duration window, @NonNull Duration cooldown, int trialCalls,
+                                         @NonNull LongSupplier nanoClock) {
+    if (!(failureRatioThreshold > 0 && failureRatioThreshold <= 1))
+      throw new IllegalArgumentException("The failure ratio threshold must be within (0, 1].");
+    if (minimumCalls < 1) throw new IllegalArgumentException("The minimum number of calls must be positive.");
+    if (window.isNegative() || window.isZero()) throw new IllegalArgumentException("The window must be positive.");
+    if (cooldown.isNegative()) throw new IllegalArgumentException("The cooldown must not be negative.");
+    if (trialCalls < 1) throw new IllegalArgumentException("The number of trial calls must be positive.");
+    return new CircuitBreaker<>(openError, failureRatioThreshold, minimumCalls, window.toNanos(), cooldown.toNanos(), trialCalls, nanoClock);
+  }
+
+  /**
+   * @param supplier a {@link Supplier} of {@link Attempt}, such as a call to {@link Attempt#attempt}.
+   * @return the {@link Attempt} returned by the supplier, or the preallocated open failure if the call is not permitted.
+   */
+  @SuppressWarnings("unchecked")
+  public <R> Attempt<R, E> apply(@NonNull Supplier<? extends Attempt<? extends R, ? extends E>> supplier) {
+    var permitted = circuit.get();
+    if (permitted.state != CLOSED && (permitted = acquirePermit(permitted)) == null) {
+      rejections.increment();
+      //noinspection unchecked
+      return (Attempt<R, E>) openFailure;
+    }
+
+    var success = false;
+    try {
+      //noinspection unchecked
+      @SuppressWarnings("unchecked")
+      var attempt = (Attempt<R, E>) supplier.get();
+      success = attempt.isSuccess();
+      return attempt;
+    } finally {
+      if (permitted.state == CLOSED) recordClosed(success);
+      else recordTrial(permitted.generation, success);
+    }
+  }
+
+  /**
+   * @return the current state of the breaker, a lapsed cooldown being reported as half-open.
+   */
+  public State getState() {
+    var current = circuit.get();
+    if (current.state == OPEN && nanoClock.getAsLong() - current.openedAt >= cooldownNanos) return State.HALF_OPEN;
+    return State.values()[current.state];
+  }
+
+  /**
+   * @return the number of calls short-circuited since the creation of the breaker.
+   */
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+
+  /**
+   * @return the state under which the call is permitted, or {@code null} if it is not.
+   */
+  private Circuit acquirePermit(Circuit current) {
+    for (; ; current = circuit.get()) {
+      if (current.state == CLOSED) return current;
+
+      Circuit next;
+      if (current.state == OPEN) {
+        if (nanoClock.getAsLong() - current.openedAt < cooldownNanos) return null;
+        next = new Circuit(HALF_OPEN, current.generation + 1, current.openedAt, trialCalls - 1, 0);
+      } else {
+        if (current.trialPermits == 0) return null;
+        next = new Circuit(HALF_OPEN, current.generation, current.openedAt, current.trialPermits - 1, current.trialSuccesses);
+      }
+
+      if (circuit.compareAndSet(current, next)) return next;
+    }
+  }
+
+  private void recordClosed(boolean success) {
+    var epoch = nanoClock.getAsLong() / bucketNanos;
+    var bucket = buckets[(int) Math.floorMod(epoch, (long) BUCKET_COUNT)];
+    bucket.rollTo(epoch);
+    if (success) {
+      bucket.successes.increment();
+      return;
+    }
+
+    bucket.failures.increment();
+    if (shouldTrip(epoch)) trip();
+  }
+
+  /**
+   * Records the outcome of a trial call, ignored if the half-open round it was permitted in is over.
+   */
+  private void recordTrial(long generation, boolean success) {
+    for (; ; ) {
+      var current = circuit.get();
+      if (current.state != HALF_OPEN || current.generation != generation) return;
+
+      Circuit next;
+      if (!success) {
+        next = new Circuit(OPEN, generation + 1, nanoClock.getAsLong(), 0, 0);
+      } else if (current.trialSuccesses + 1 == trialCalls) {
+        for (var bucket : buckets) bucket.rollTo(Long.MIN_VALUE);
+        next = new Circuit(CLOSED, generation + 1, 0, 0, 0);
+      } else {
+        next = new Circuit(HALF_OPEN, generation, current.openedAt, current.trialPermits, current.trialSuccesses + 1);
+      }
+
+      if (circuit.compareAndSet(current, next)) return;
+    }
+  }
+
+  private boolean shouldTrip(long epoch) {
+    long successes = 0, failures = 0;
+    for (var bucket : buckets) {
+      if (bucket.epoch.get() <= epoch - BUCKET_COUNT) continue;
+      successes += bucket.successes.sum();
+      failures += bucket.failures.sum();
+    }
+
+    var total = successes + failures;
+    return total >= minimumCalls && failures >= failureRatioThreshold * total;
+  }
+
+  private void trip() {
+    for (var current = circuit.get(); current.state == CLOSED; current = circuit.get())
+      if (circuit.compareAndSet(current, new Circuit(OPEN, current.generation + 1, nanoClock.getAsLong(), 0, 0))) return;
+  }
+
+  /**
+   * Immutable snapshot of the state of the breaker, replaced as a whole on each transition.
+   * The generation is incremented on each change of state, so that the outcomes of calls permitted in an earlier
+   * round are told apart.
+   */
+  private static final class Circuit {
+    final int state;
+    final long generation;
+    final long openedAt;
+    final int trialPermits;
+    final int trialSuccesses;
+
+    Circuit(int state, long generation, long openedAt, int trialPermits, int trialSuccesses) {
+      this.state = state;
+      this.generation = generation;
+      this.openedAt = openedAt;
+      this.trialPermits = trialPermits;
+      this.trialSuccesses = trialSuccesses;
+    }
+  }
+
+  /**
+   * Outcome counters of a slice of the sliding window, reset when recycled for a later slice.
+   */
+  private static final class Bucket {
+    final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+    final LongAdder successes = new LongAdder();
+    final LongAdder failures = new LongAdder();
+
+    void rollTo(long target) {
+      var current = epoch.get();
+      if (current == target || !epoch.compareAndSet(current, target)) return;
+      successes.reset();
+      failures.reset();
+    }
+  }
+}
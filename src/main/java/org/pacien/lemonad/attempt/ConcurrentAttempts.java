@@ -0,0 +1,121 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import lombok.NonNull;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Implementations of the concurrent combinators of {@link Attempt}.
+ *
+ * @author pacien
+ */
+final class ConcurrentAttempts {
+  private ConcurrentAttempts() {
+  }
+
+  @SuppressWarnings("unchecked")
+  static <R, E extends Throwable> Attempt<List<R>, List<E>> all(
+    @NonNull List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers,
+    @NonNull Executor executor,
+    int maxConcurrency
+  ) {
+    var results = new Object[suppliers.size()];
+    var errors = new Object[suppliers.size()];
+    try {
+      new FanOut<R, E>(suppliers, executor, maxConcurrency).run(task -> {
+        var attempt = task.getAttempt();
+        if (attempt.isSuccess()) results[task.getIndex()] = attempt.getResult();
+        else errors[task.getIndex()] = attempt.getError();
+        return attempt.isSuccess();
+      }, task -> task.getAttempt().ifFailure(error -> errors[task.getIndex()] = error));
+    } catch (InterruptedException e) {
+      throw interrupted(e);
+    }
+
+    var reportedErrors = ConcurrentAttempts.<E>compact(errors);
+    //noinspection unchecked
+    return reportedErrors.isEmpty()
+      ? Attempt.success(unmodifiableList((List<R>) Arrays.asList(results)))
+      : Attempt.failure(reportedErrors);
+  }
+
+  static <R, E extends Throwable> Attempt<R, List<E>> any(
+    @NonNull List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers,
+    @NonNull Executor executor,
+    int maxConcurrency
+  ) {
+    var errors = new Object[suppliers.size()];
+    var winner = new ArrayList<Attempt<R, E>>(1);
+    try {
+      new FanOut<R, E>(suppliers, executor, maxConcurrency).run(task -> {
+        var attempt = task.getAttempt();
+        if (attempt.isSuccess()) winner.add(attempt);
+        else errors[task.getIndex()] = attempt.getError();
+        return attempt.isFailure();
+      }, task -> { });
+    } catch (InterruptedException e) {
+      throw interrupted(e);
+    }
+
+    return winner.isEmpty()
+      ? Attempt.failure(ConcurrentAttempts.<E>compact(errors))
+      : Attempt.success(winner.get(0).getResult());
+  }
+
+  static <R, E extends Throwable> Attempt<R, E> race(
+    @NonNull List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers,
+    @NonNull Executor executor,
+    int maxConcurrency
+  ) {
+    if (suppliers.isEmpty()) throw new IllegalArgumentException("Cannot race without any supplier.");
+
+    var winner = new ArrayList<Attempt<R, E>>(1);
+    try {
+      new FanOut<R, E>(suppliers, executor, maxConcurrency).run(task -> {
+        winner.add(task.getAttempt());
+        return false;
+      }, task -> { });
+    } catch (InterruptedException e) {
+      throw interrupted(e);
+    }
+
+    return winner.get(0);
+  }
+
+  private static CompletionException interrupted(InterruptedException e) {
+    Thread.currentThread().interrupt();
+    return new CompletionException(e);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E> List<E> compact(Object[] errors) {
+    //noinspection unchecked
+    return Arrays.stream(errors).filter(Objects::nonNull).map(error -> (E) error).collect(toUnmodifiableList());
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import lombok.NonNull;
+
+/**
+ * Wraps either a {@code double} value from a success or an error from a failure, without boxing the result.
+ *
+ * @param <E> the potential error type.
+ * @author pacien
+ * @see Attempt
+ */
+public interface DoubleAttempt<E> {
+  /**
+   * @return whether the {@link DoubleAttempt} is successful.
+   */
+  boolean isSuccess();
+
+  /**
+   * @return whether the {@link DoubleAttempt} is failed.
+   */
+  boolean isFailure();
+
+  /**
+   * @return the result if this {@link DoubleAttempt} is a success.
+   * @throws java.util.NoSuchElementException if this {@link DoubleAttempt} is a failure.
+   */
+  double getResult();
+
+  /**
+   * @return the error if this {@link DoubleAttempt} is a failure.
+   * @throws java.util.NoSuchElementException if this {@link DoubleAttempt} is a success.
+   */
+  E getError();
+
+  /**
+   * @param resultConsumer a consumer of result called if the {@link DoubleAttempt} is a success.
+   * @return the current {@link DoubleAttempt}.
+   */
+  default DoubleAttempt<E> ifSuccess(@NonNull DoubleConsumer resultConsumer) {
+    if (isSuccess()) resultConsumer.accept(getResult());
+    return this;
+  }
+
+  /**
+   * @param errorConsumer a {@link Consumer} of error called if the {@link DoubleAttempt} is a failure.
+   * @return the current {@link DoubleAttempt}.
+   */
+  default DoubleAttempt<E> ifFailure(@NonNull Consumer<? super E> errorConsumer) {
+    if (isFailure()) errorConsumer.accept(getError());
+    return this;
+  }
+
+  /**
+   * @param transformer a function producing an {@link DoubleAttempt}, called with the current result if this {@link DoubleAttempt} is a success.
+   * @return this {@link DoubleAttempt} if it is a failure, or the produced one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default DoubleAttempt<E> transformResult(@NonNull DoubleFunction<? extends DoubleAttempt<? extends E>> transformer) {
+    //noinspection unchecked
+    return (DoubleAttempt<E>) (isSuccess() ? transformer.apply(getResult()) : this);
+  }
+
+  /**
+   * @param transformer a function producing an {@link Attempt}, called with the current result if this {@link DoubleAttempt} is a success.
+   * @return an {@link Attempt} with the error of this {@link DoubleAttempt} if it is a failure, or the produced one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <RR> Attempt<RR, E> transformResultToObj(@NonNull DoubleFunction<? extends Attempt<? extends RR, ? extends E>> transformer) {
+    //noinspection unchecked
+    return isSuccess() ? (Attempt<RR, E>) transformer.apply(getResult()) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result if this {@link DoubleAttempt} is a success.
+   * @return this {@link DoubleAttempt} if it is a failure, or the mutated one otherwise.
+   */
+  default DoubleAttempt<E> mapResult(@NonNull DoubleUnaryOperator mapper) {
+    return isSuccess() ? success(mapper.applyAsDouble(getResult())) : this;
+  }
+
+  /**
+   * @param mapper a function mapping the result if this {@link DoubleAttempt} is a success.
+   * @return an {@link Attempt} with the mapped result, or with the error of this {@link DoubleAttempt}.
+   */
+  default <RR> Attempt<RR, E> mapResultToObj(@NonNull DoubleFunction<? extends RR> mapper) {
+    return isSuccess() ? Attempt.success(mapper.apply(getResult())) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code int} if this {@link DoubleAttempt} is a success.
+   * @return a {@link IntAttempt} with the mapped result, or with the error of this {@link DoubleAttempt}.
+   */
+  default IntAttempt<E> mapResultToInt(@NonNull DoubleToIntFunction mapper) {
+    return isSuccess() ? IntAttempt.success(mapper.applyAsInt(getResult())) : IntAttempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code long} if this {@link DoubleAttempt} is a success.
+   * @return a {@link LongAttempt} with the mapped result, or with the error of this {@link DoubleAttempt}.
+   */
+  default LongAttempt<E> mapResultToLong(@NonNull DoubleToLongFunction mapper) {
+    return isSuccess() ? LongAttempt.success(mapper.applyAsLong(getResult())) : LongAttempt.failure(getError());
+  }
+
+  /**
+   * @param recoverer a function producing an {@link DoubleAttempt}, called with the current error if this {@link DoubleAttempt} is a failure.
+   * @return this {@link DoubleAttempt} if it is a success, or the alternative {@link DoubleAttempt} retrieved from the recoverer otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <EE> DoubleAttempt<EE> recoverError(@NonNull Function<? super E, ? extends DoubleAttempt<? extends EE>> recoverer) {
+    //noinspection unchecked
+    return (DoubleAttempt<EE>) (isFailure() ? recoverer.apply(getError()) : this);
+  }
+
+  /**
+   * @param mapper a function mapping the error if this {@link DoubleAttempt} is a failure.
+   * @return this {@link DoubleAttempt} if it is a success, or the mutated one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <EE> DoubleAttempt<EE> mapError(@NonNull Function<? super E, ? extends EE> mapper) {
+    //noinspection unchecked
+    return isFailure() ? failure(mapper.apply(getError())) : (DoubleAttempt<EE>) this;
+  }
+
+  /**
+   * @return an {@link Attempt} wrapping the boxed result or the error of this {@link DoubleAttempt}.
+   */
+  default Attempt<Double, E> boxed() {
+    return isSuccess() ? Attempt.success(getResult()) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param result the result of the {@link DoubleAttempt}.
+   * @return a successful {@link DoubleAttempt} wrapping the supplied result.
+   */
+  static <E> DoubleAttempt<E> success(double result) {
+    return new DoubleSuccess<>(result);
+  }
+
+  /**
+   * @param error the cause of the failure of the {@link DoubleAttempt}.
+   * @return a failed {@link DoubleAttempt} with the supplied error.
+   */
+  static <E> DoubleAttempt<E> failure(E error) {
+    return new DoubleFailure<>(error);
+  }
+
+  /**
+   * @param supplier a supplier of {@code double} that may throw an {@link Throwable}.
+   * @return an {@link DoubleAttempt} wrapping either the result of the execution of the supplier or any thrown {@link Throwable}.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends Throwable> DoubleAttempt<E> attempt(@NonNull ThrowingDoubleSupplier<? extends E> supplier) {
+    try {
+      return success(supplier.getAsDouble());
+    } catch (Throwable throwable) {
+      //noinspection unchecked
+      return (DoubleAttempt<E>) failure(throwable);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import lombok.NonNull;
+
+/**
+ * Runs a list of suppliers concurrently, with a bounded number of them in flight at any time,
+ * handing their outcomes to the caller thread in completion order.
+ *
+ * @author pacien
+ */
+final class FanOut<R, E extends Throwable> {
+  private final List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers;
+  private final Executor executor;
+  private final int maxConcurrency;
+  private final BlockingQueue<AttemptTask<R, E>> completionQueue = new LinkedBlockingQueue<>();
+  private final List<AttemptTask<R, E>> tasks;
+
+  FanOut(@NonNull List<? extends ThrowingSupplier<? extends R, ? extends E>> suppliers, @NonNull Executor executor, int maxConcurrency) {
+    if (maxConcurrency < 1) throw new IllegalArgumentException("The concurrency limit must be positive.");
+    this.suppliers = suppliers;
+    this.executor = executor;
+    this.maxConcurrency = maxConcurrency;
+    this.tasks = new ArrayList<>(Math.min(suppliers.size(), maxConcurrency));
+  }
+
+  /**
+   * Hands the completed tasks to a visitor until it returns {@code false} or all the tasks have completed.
+   * All the remaining tasks are then cancelled, interrupting the running ones.
+   * The tasks which completed before the cancellation are finally handed to the drain consumer.
+   *
+   * @param visitor a predicate receiving each completed task and returning whether to wait for the next one.
+   * @param drain   a consumer receiving the tasks which completed meanwhile, once the visitor has returned {@code false}.
+   * @throws InterruptedException if the caller thread has been interrupted while waiting, the tasks then being cancelled.
+   */
+  void run(@NonNull Predicate<? super AttemptTask<R, E>> visitor, @NonNull Consumer<? super AttemptTask<R, E>> drain) throws InterruptedException {
+    try {
+      while (tasks.size() < Math.min(suppliers.size(), maxConcurrency)) start();
+      for (var remaining = suppliers.size(); remaining > 0; remaining--) {
+        if (!visitor.test(completionQueue.take())) break;
+        if (tasks.size() < suppliers.size()) start();
+      }
+    } finally {
+      for (var task : tasks) task.cancel(true);
+    }
+
+    for (var task = completionQueue.poll(); task != null; task = completionQueue.poll())
+      if (!task.isCancelled()) drain.accept(task);
+  }
+
+  private void start() {
+    var task = new AttemptTask<R, E>(tasks.size(), suppliers.get(tasks.size()), completionQueue::add);
+    tasks.add(task);
+    executor.execute(task);
+  }
+}
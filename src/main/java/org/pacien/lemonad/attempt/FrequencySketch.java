@@ -0,0 +1,89 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch estimating the recent access frequency of keys, with saturating counters.
+ * All the counters are halved once a sample of accesses proportional to the number of expected keys has been recorded,
+ * so that the estimates age and favour recently popular keys.
+ *
+ * @author pacien
+ */
+final class FrequencySketch {
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  private static final int[] SEEDS = {0x97cb3127, 0xb492b66f, 0x9ae16a3b, 0xc2b2ae35};
+
+  private final AtomicIntegerArray counters;
+  private final int mask;
+  private final int sampleSize;
+  private final AtomicInteger additions = new AtomicInteger();
+
+  /**
+   * @param expectedKeys the number of keys whose frequencies should be told apart.
+   */
+  FrequencySketch(int expectedKeys) {
+    var width = Integer.highestOneBit((int) Math.min(1 << 20, Math.max(64L, 2L * expectedKeys) - 1) << 1);
+    this.counters = new AtomicIntegerArray(width * DEPTH);
+    this.mask = width - 1;
+    this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(expectedKeys, 8));
+  }
+
+  /**
+   * Records an access to a key.
+   */
+  void increment(Object key) {
+    var hash = spread(key);
+    for (var row = 0; row < DEPTH; row++) {
+      var index = index(hash, row);
+      var count = counters.get(index);
+      if (count < MAX_COUNT) counters.compareAndSet(index, count, count + 1);
+    }
+
+    if (additions.incrementAndGet() == sampleSize) reset();
+  }
+
+  /**
+   * @return the estimated recent number of accesses to a key.
+   */
+  int frequency(Object key) {
+    var hash = spread(key);
+    var frequency = MAX_COUNT;
+    for (var row = 0; row < DEPTH; row++) frequency = Math.min(frequency, counters.get(index(hash, row)));
+    return frequency;
+  }
+
+  private void reset() {
+    for (var index = 0; index < counters.length(); index++) counters.set(index, counters.get(index) >>> 1);
+    additions.set(0);
+  }
+
+  private int index(int hash, int row) {
+    var h = (hash ^ SEEDS[row]) * SEEDS[row];
+    return row * (mask + 1) + ((h ^ (h >>> 16)) & mask);
+  }
+
+  private static int spread(Object key) {
+    var h = key.hashCode() * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+}
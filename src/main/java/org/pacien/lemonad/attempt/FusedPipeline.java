@@ -0,0 +1,200 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import static java.util.function.Function.identity;
+
+/**
+ * {@link AttemptPipeline} running its stages in a single loop,
+ * carrying the state of the intermediate {@link Attempt} in local variables.
+ *
+ * @author pacien
+ */
+final class FusedPipeline<I, R, E> implements AttemptPipeline<I, R, E> {
+  private static final FusedPipeline<?, ?, ?> IDENTITY = new FusedPipeline<>(new Stage[0]);
+
+  private static final Terminal<Attempt<?, ?>> TO_ATTEMPT = new Terminal<>() {
+    @Override public Attempt<?, ?> success(Object resultConsumer, Object result) {
+      return Attempt.success(result);
+    }
+
+    @Override public Attempt<?, ?> failure(Object errorConsumer, Object error) {
+      return Attempt.failure(error);
+    }
+  };
+
+  @SuppressWarnings("unchecked")
+  private static final Terminal<Void> TO_CONSUMERS = new Terminal<>() {
+    @Override public Void success(Object resultConsumer, Object result) {
+      if (resultConsumer != null) ((Consumer<Object>) resultConsumer).accept(result);
+      return null;
+    }
+
+    @Override public Void failure(Object errorConsumer, Object error) {
+      if (errorConsumer != null) ((Consumer<Object>) errorConsumer).accept(error);
+      return null;
+    }
+  };
+
+  private final Stage[] stages;
+
+  private FusedPipeline(Stage[] stages) {
+    this.stages = stages;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <I, E> FusedPipeline<I, I, E> empty() {
+    //noinspection unchecked
+    return (FusedPipeline<I, I, E>) IDENTITY;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public Attempt<R, E> apply(I input) {
+    //noinspection unchecked
+    return (Attempt<R, E>) run(true, input, null, null, TO_ATTEMPT);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public Attempt<R, E> applyTo(@NonNull Attempt<? extends I, ? extends E> attempt) {
+    var success = attempt.isSuccess();
+    //noinspection unchecked
+    return (Attempt<R, E>) run(success, success ? attempt.getResult() : attempt.getError(), null, null, TO_ATTEMPT);
+  }
+
+  @Override public void ifSuccess(I input, @NonNull Consumer<? super R> resultConsumer) {
+    run(true, input, resultConsumer, null, TO_CONSUMERS);
+  }
+
+  @Override public void ifFailure(I input, @NonNull Consumer<? super E> errorConsumer) {
+    run(true, input, null, errorConsumer, TO_CONSUMERS);
+  }
+
+  @Override public void accept(I input, @NonNull Consumer<? super R> resultConsumer, @NonNull Consumer<? super E> errorConsumer) {
+    run(true, input, resultConsumer, errorConsumer, TO_CONSUMERS);
+  }
+
+  @Override public <RR> AttemptPipeline<I, RR, E> transformResult(
+    @NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends E>> transformer
+  ) {
+    return with(Kind.TRANSFORM_RESULT, transformer, identity());
+  }
+
+  @Override public <RR, IE> AttemptPipeline<I, RR, E> transformResult(
+    @NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends IE>> transformer,
+    @NonNull Function<? super IE, ? extends E> errorAdapter
+  ) {
+    return with(Kind.TRANSFORM_RESULT, transformer, errorAdapter);
+  }
+
+  @Override public <RR> AttemptPipeline<I, RR, E> mapResult(@NonNull Function<? super R, ? extends RR> mapper) {
+    return with(Kind.MAP_RESULT, mapper, identity());
+  }
+
+  @Override public <EE> AttemptPipeline<I, R, EE> recoverError(
+    @NonNull Function<? super E, ? extends Attempt<? extends R, ? extends EE>> recoverer
+  ) {
+    return with(Kind.RECOVER_ERROR, recoverer, identity());
+  }
+
+  @Override public <IR, EE> AttemptPipeline<I, R, EE> recoverError(
+    @NonNull Function<? super E, ? extends Attempt<? extends IR, ? extends EE>> recoverer,
+    @NonNull Function<? super IR, ? extends R> resultAdapter
+  ) {
+    return with(Kind.RECOVER_ERROR, recoverer, resultAdapter);
+  }
+
+  @Override public <EE> AttemptPipeline<I, R, EE> mapError(@NonNull Function<? super E, ? extends EE> mapper) {
+    return with(Kind.MAP_ERROR, mapper, identity());
+  }
+
+  @Override public <RR, EE> AttemptPipeline<I, RR, EE> transform(
+    @NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends EE>> resultTransformer,
+    @NonNull Function<? super E, ? extends Attempt<? extends RR, ? extends EE>> errorTransformer
+  ) {
+    return with(Kind.TRANSFORM, resultTransformer, errorTransformer);
+  }
+
+  private <T> T run(boolean success, Object value, Object resultConsumer, Object errorConsumer, Terminal<T> terminal) {
+    for (var stage : stages) {
+      Attempt<?, ?> attempt;
+      switch (stage.getKind()) {
+        case MAP_RESULT:
+          if (success) value = stage.getFunction().apply(value);
+          break;
+
+        case MAP_ERROR:
+          if (!success) value = stage.getFunction().apply(value);
+          break;
+
+        case TRANSFORM_RESULT:
+          if (!success) break;
+          attempt = (Attempt<?, ?>) stage.getFunction().apply(value);
+          success = attempt.isSuccess();
+          value = success ? attempt.getResult() : stage.getAdapter().apply(attempt.getError());
+          break;
+
+        case RECOVER_ERROR:
+          if (success) break;
+          attempt = (Attempt<?, ?>) stage.getFunction().apply(value);
+          success = attempt.isSuccess();
+          value = success ? stage.getAdapter().apply(attempt.getResult()) : attempt.getError();
+          break;
+
+        case TRANSFORM:
+          attempt = (Attempt<?, ?>) (success ? stage.getFunction() : stage.getAdapter()).apply(value);
+          success = attempt.isSuccess();
+          value = success ? attempt.getResult() : attempt.getError();
+          break;
+      }
+    }
+
+    return success ? terminal.success(resultConsumer, value) : terminal.failure(errorConsumer, value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <RR, EE> FusedPipeline<I, RR, EE> with(Kind kind, Function<?, ?> function, Function<?, ?> adapter) {
+    var extended = Arrays.copyOf(stages, stages.length + 1);
+    //noinspection unchecked
+    extended[stages.length] = new Stage(kind, (Function<Object, Object>) function, (Function<Object, Object>) adapter);
+    return new FusedPipeline<>(extended);
+  }
+
+  private enum Kind {
+    MAP_RESULT, MAP_ERROR, TRANSFORM_RESULT, RECOVER_ERROR, TRANSFORM
+  }
+
+  @Value private static class Stage {
+    Kind kind;
+    Function<Object, Object> function;
+    Function<Object, Object> adapter;
+  }
+
+  private interface Terminal<T> {
+    T success(Object resultConsumer, Object result);
+
+    T failure(Object errorConsumer, Object error);
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * {@link AsyncAttempt} backed by a {@link CompletableFuture}.
+ *
+ * @author pacien
+ */
+@Value class FutureAttempt<R, E> implements AsyncAttempt<R, E> {
+  static final Executor DEFAULT_EXECUTOR = virtualThreadExecutor();
+
+  @NonNull CompletableFuture<Attempt<R, E>> future;
+  @NonNull Executor executor;
+
+  @Override public CompletionStage<Attempt<R, E>> toCompletionStage() {
+    return future.minimalCompletionStage();
+  }
+
+  @Override public Attempt<R, E> join() {
+    return future.join();
+  }
+
+  @Override public AsyncAttempt<R, E> withExecutor(@NonNull Executor executor) {
+    return new FutureAttempt<>(future, executor);
+  }
+
+  @Override public AsyncAttempt<R, E> withTimeout(@NonNull Duration timeout, @NonNull Supplier<? extends E> errorFactory) {
+    var timed = future.copy().orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).handle((attempt, throwable) -> {
+      if (throwable == null) return attempt;
+      if (!(throwable instanceof TimeoutException))
+        throw throwable instanceof CompletionException ? (CompletionException) throwable : new CompletionException(throwable);
+
+      return Attempt.<R, E>failure(errorFactory.get());
+    });
+
+    return new FutureAttempt<>(timed, executor);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public <RR, EE> AsyncAttempt<RR, EE> flatMap(
+    @NonNull Function<? super Attempt<R, E>, ? extends Attempt<? extends RR, ? extends EE>> transformer
+  ) {
+    //noinspection unchecked
+    return new FutureAttempt<>(future.thenApplyAsync(attempt -> (Attempt<RR, EE>) transformer.apply(attempt), executor), executor);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public <RR, EE> AsyncAttempt<RR, EE> flatMapAsync(
+    @NonNull Function<? super Attempt<R, E>, ? extends AsyncAttempt<? extends RR, ? extends EE>> transformer
+  ) {
+    //noinspection unchecked
+    return new FutureAttempt<>(future.thenComposeAsync(attempt -> (CompletionStage<Attempt<RR, EE>>) (CompletionStage<?>)
+      transformer.apply(attempt).toCompletionStage(), executor), executor);
+  }
+
+  static Throwable unwrap(Throwable throwable) {
+    return (throwable instanceof CompletionException || throwable instanceof ExecutionException) && throwable.getCause() != null
+      ? throwable.getCause()
+      : throwable;
+  }
+
+  /**
+   * @return the value of the supplied future, rethrowing as-is any unchecked exception it completed with.
+   */
+  static <T> T joinUnwrapped(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (RuntimeException exception) {
+      var cause = unwrap(exception);
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw exception;
+    }
+  }
+
+  private static Executor virtualThreadExecutor() {
+    try {
+      return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return ForkJoinPool.commonPool();
+    }
+  }
+}
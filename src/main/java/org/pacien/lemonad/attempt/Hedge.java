@@ -0,0 +1,152 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.NonNull;
+
+/**
+ * Hedging policy reducing the tail latency of slow suppliers.
+ * A second, speculative call to a supplier is started if the first one has not completed after a given delay,
+ * as long as the number of speculative calls in flight across all callers stays under a given limit.
+ * The first successful call wins, the other one being cancelled.
+ *
+ * @author pacien
+ */
+public final class Hedge {
+  private final long delayNanos;
+  private final int maxInFlightHedges;
+  private final Executor executor;
+  private final AtomicInteger inFlightHedges = new AtomicInteger();
+  private final LongAdder startedHedges = new LongAdder();
+  private final LongAdder wonHedges = new LongAdder();
+
+  private Hedge(long delayNanos, int maxInFlightHedges, Executor executor) {
+    this.delayNanos = delayNanos;
+    this.maxInFlightHedges = maxInFlightHedges;
+    this.executor = executor;
+  }
+
+  /**
+   * @param delay             the time to wait for the first call to complete before starting a speculative one.
+   * @param maxInFlightHedges the maximum number of speculative calls running at the same time across all callers.
+   * @param executor          the {@link Executor} on which to run the calls.
+   * @return a {@link Hedge} policy.
+   */
+  public static Hedge of(@NonNull Duration delay, int maxInFlightHedges, @NonNull Executor executor) {
+    if (delay.isNegative()) throw new IllegalArgumentException("The hedging delay must not be negative.");
+    if (maxInFlightHedges < 0) throw new IllegalArgumentException("The in-flight hedge limit must not be negative.");
+    return new Hedge(delay.toNanos(), maxInFlightHedges, executor);
+  }
+
+  /**
+   * Runs a supplier, hedging it with a speculative call if it is too slow.
+   * If both calls fail, the failure of the first one is returned.
+   *
+   * @param supplier a {@code Supplier} that may throw an {@link Throwable}.
+   * @return an {@link Attempt} wrapping either the first result of the execution of the supplier or any thrown {@link Throwable}.
+   * @throws CompletionException wrapping the {@link InterruptedException} if the calling thread is interrupted while waiting,
+   *                             in which case its interrupt status is restored and the calls are cancelled.
+   */
+  public <R, E extends Throwable> Attempt<R, E> attempt(@NonNull ThrowingSupplier<? extends R, ? extends E> supplier) {
+    var completionQueue = new LinkedBlockingQueue<AttemptTask<R, E>>();
+    var primary = new AttemptTask<R, E>(0, supplier, task -> enqueueCompleted(task, completionQueue));
+    AttemptTask<R, E> hedge = null;
+    executor.execute(primary);
+
+    try {
+      var first = completionQueue.poll(delayNanos, TimeUnit.NANOSECONDS);
+      if (first != null) return first.getAttempt();
+
+      hedge = startHedge(supplier, completionQueue);
+      first = completionQueue.take();
+      if (first.getAttempt().isSuccess() || hedge == null) return outcome(first);
+
+      var second = completionQueue.take();
+      return second.getAttempt().isSuccess() ? outcome(second) : primary.getAttempt();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } finally {
+      primary.cancel(true);
+      if (hedge != null) hedge.cancel(true);
+    }
+  }
+
+  /**
+   * @return the number of speculative calls which have been started.
+   */
+  public long getStartedHedges() {
+    return startedHedges.sum();
+  }
+
+  /**
+   * @return the number of speculative calls whose result has been returned.
+   */
+  public long getWonHedges() {
+    return wonHedges.sum();
+  }
+
+  private <R, E extends Throwable> AttemptTask<R, E> startHedge(ThrowingSupplier<? extends R, ? extends E> supplier,
+                                                               BlockingQueue<AttemptTask<R, E>> completionQueue) {
+    for (var inFlight = inFlightHedges.get(); inFlight < maxInFlightHedges; inFlight = inFlightHedges.get()) {
+      if (!inFlightHedges.compareAndSet(inFlight, inFlight + 1)) continue;
+
+      var hedge = new AttemptTask<R, E>(1, supplier, task -> enqueueCompleted(task, completionQueue));
+      try {
+        executor.execute(() -> {
+          try {
+            hedge.run();
+          } finally {
+            inFlightHedges.decrementAndGet();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        inFlightHedges.decrementAndGet();
+        return null;
+      }
+
+      startedHedges.increment();
+      return hedge;
+    }
+
+    return null;
+  }
+
+  /**
+   * Hands a task which has run to completion to the caller, the cancelled ones holding no {@link Attempt}.
+   */
+  private static <R, E extends Throwable> void enqueueCompleted(AttemptTask<R, E> task, BlockingQueue<AttemptTask<R, E>> completionQueue) {
+    if (!task.isCancelled()) completionQueue.add(task);
+  }
+
+  private <R, E extends Throwable> Attempt<R, E> outcome(AttemptTask<R, E> winner) {
+    if (winner.getIndex() == 1) wonHedges.increment();
+    return winner.getAttempt();
+  }
+}
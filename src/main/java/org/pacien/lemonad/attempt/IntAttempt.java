@@ -0,0 +1,187 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+import lombok.NonNull;
+
+/**
+ * Wraps either a {@code int} value from a success or an error from a failure, without boxing the result.
+ *
+ * @param <E> the potential error type.
+ * @author pacien
+ * @see Attempt
+ */
+public interface IntAttempt<E> {
+  /**
+   * @return whether the {@link IntAttempt} is successful.
+   */
+  boolean isSuccess();
+
+  /**
+   * @return whether the {@link IntAttempt} is failed.
+   */
+  boolean isFailure();
+
+  /**
+   * @return the result if this {@link IntAttempt} is a success.
+   * @throws java.util.NoSuchElementException if this {@link IntAttempt} is a failure.
+   */
+  int getResult();
+
+  /**
+   * @return the error if this {@link IntAttempt} is a failure.
+   * @throws java.util.NoSuchElementException if this {@link IntAttempt} is a success.
+   */
+  E getError();
+
+  /**
+   * @param resultConsumer a consumer of result called if the {@link IntAttempt} is a success.
+   * @return the current {@link IntAttempt}.
+   */
+  default IntAttempt<E> ifSuccess(@NonNull IntConsumer resultConsumer) {
+    if (isSuccess()) resultConsumer.accept(getResult());
+    return this;
+  }
+
+  /**
+   * @param errorConsumer a {@link Consumer} of error called if the {@link IntAttempt} is a failure.
+   * @return the current {@link IntAttempt}.
+   */
+  default IntAttempt<E> ifFailure(@NonNull Consumer<? super E> errorConsumer) {
+    if (isFailure()) errorConsumer.accept(getError());
+    return this;
+  }
+
+  /**
+   * @param transformer a function producing an {@link IntAttempt}, called with the current result if this {@link IntAttempt} is a success.
+   * @return this {@link IntAttempt} if it is a failure, or the produced one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default IntAttempt<E> transformResult(@NonNull IntFunction<? extends IntAttempt<? extends E>> transformer) {
+    //noinspection unchecked
+    return (IntAttempt<E>) (isSuccess() ? transformer.apply(getResult()) : this);
+  }
+
+  /**
+   * @param transformer a function producing an {@link Attempt}, called with the current result if this {@link IntAttempt} is a success.
+   * @return an {@link Attempt} with the error of this {@link IntAttempt} if it is a failure, or the produced one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <RR> Attempt<RR, E> transformResultToObj(@NonNull IntFunction<? extends Attempt<? extends RR, ? extends E>> transformer) {
+    //noinspection unchecked
+    return isSuccess() ? (Attempt<RR, E>) transformer.apply(getResult()) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result if this {@link IntAttempt} is a success.
+   * @return this {@link IntAttempt} if it is a failure, or the mutated one otherwise.
+   */
+  default IntAttempt<E> mapResult(@NonNull IntUnaryOperator mapper) {
+    return isSuccess() ? success(mapper.applyAsInt(getResult())) : this;
+  }
+
+  /**
+   * @param mapper a function mapping the result if this {@link IntAttempt} is a success.
+   * @return an {@link Attempt} with the mapped result, or with the error of this {@link IntAttempt}.
+   */
+  default <RR> Attempt<RR, E> mapResultToObj(@NonNull IntFunction<? extends RR> mapper) {
+    return isSuccess() ? Attempt.success(mapper.apply(getResult())) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code long} if this {@link IntAttempt} is a success.
+   * @return a {@link LongAttempt} with the mapped result, or with the error of this {@link IntAttempt}.
+   */
+  default LongAttempt<E> mapResultToLong(@NonNull IntToLongFunction mapper) {
+    return isSuccess() ? LongAttempt.success(mapper.applyAsLong(getResult())) : LongAttempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code double} if this {@link IntAttempt} is a success.
+   * @return a {@link DoubleAttempt} with the mapped result, or with the error of this {@link IntAttempt}.
+   */
+  default DoubleAttempt<E> mapResultToDouble(@NonNull IntToDoubleFunction mapper) {
+    return isSuccess() ? DoubleAttempt.success(mapper.applyAsDouble(getResult())) : DoubleAttempt.failure(getError());
+  }
+
+  /**
+   * @param recoverer a function producing an {@link IntAttempt}, called with the current error if this {@link IntAttempt} is a failure.
+   * @return this {@link IntAttempt} if it is a success, or the alternative {@link IntAttempt} retrieved from the recoverer otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <EE> IntAttempt<EE> recoverError(@NonNull Function<? super E, ? extends IntAttempt<? extends EE>> recoverer) {
+    //noinspection unchecked
+    return (IntAttempt<EE>) (isFailure() ? recoverer.apply(getError()) : this);
+  }
+
+  /**
+   * @param mapper a function mapping the error if this {@link IntAttempt} is a failure.
+   * @return this {@link IntAttempt} if it is a success, or the mutated one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <EE> IntAttempt<EE> mapError(@NonNull Function<? super E, ? extends EE> mapper) {
+    //noinspection unchecked
+    return isFailure() ? failure(mapper.apply(getError())) : (IntAttempt<EE>) this;
+  }
+
+  /**
+   * @return an {@link Attempt} wrapping the boxed result or the error of this {@link IntAttempt}.
+   */
+  default Attempt<Integer, E> boxed() {
+    return isSuccess() ? Attempt.success(getResult()) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param result the result of the {@link IntAttempt}.
+   * @return a successful {@link IntAttempt} wrapping the supplied result.
+   */
+  static <E> IntAttempt<E> success(int result) {
+    return new IntSuccess<>(result);
+  }
+
+  /**
+   * @param error the cause of the failure of the {@link IntAttempt}.
+   * @return a failed {@link IntAttempt} with the supplied error.
+   */
+  static <E> IntAttempt<E> failure(E error) {
+    return new IntFailure<>(error);
+  }
+
+  /**
+   * @param supplier a supplier of {@code int} that may throw an {@link Throwable}.
+   * @return an {@link IntAttempt} wrapping either the result of the execution of the supplier or any thrown {@link Throwable}.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends Throwable> IntAttempt<E> attempt(@NonNull ThrowingIntSupplier<? extends E> supplier) {
+    try {
+      return success(supplier.getAsInt());
+    } catch (Throwable throwable) {
+      //noinspection unchecked
+      return (IntAttempt<E>) failure(throwable);
+    }
+  }
+}
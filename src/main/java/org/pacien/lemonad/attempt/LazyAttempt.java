@@ -0,0 +1,146 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+
+/**
+ * {@link Attempt} evaluated on first use and memoized.
+ * The state goes from a pending supplier to an in-flight {@link CompletableFuture} installed by compare-and-set,
+ * which the concurrent readers join, and finally to the published outcome, so that the supplier runs exactly once.
+ * A supplier throwing an exception leaves the {@link Attempt} pending, the exception being propagated to all the readers
+ * waiting for that evaluation.
+ *
+ * @author pacien
+ */
+final class LazyAttempt<R, E> implements Attempt<R, E> {
+  private final AtomicReference<Object> state;
+
+  LazyAttempt(@NonNull Supplier<? extends Attempt<? extends R, ? extends E>> supplier) {
+    this.state = new AtomicReference<>(new Pending<>(supplier));
+  }
+
+  /**
+   * @return whether the outcome of this {@link Attempt} has already been evaluated.
+   */
+  boolean isEvaluated() {
+    return state.get() instanceof Attempt;
+  }
+
+  @Override public boolean isSuccess() {
+    return evaluate().isSuccess();
+  }
+
+  @Override public boolean isFailure() {
+    return evaluate().isFailure();
+  }
+
+  @Override public R getResult() {
+    return evaluate().getResult();
+  }
+
+  @Override public E getError() {
+    return evaluate().getError();
+  }
+
+  @Override public <RR> Attempt<RR, E> transformResult(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends E>> transformer) {
+    return new LazyAttempt<>(() -> evaluate().transformResult(transformer));
+  }
+
+  @Override public <EE> Attempt<R, EE> recoverError(@NonNull Function<? super E, ? extends Attempt<? extends R, ? extends EE>> recoverer) {
+    return new LazyAttempt<>(() -> evaluate().recoverError(recoverer));
+  }
+
+  @Override public <RR, EE> Attempt<RR, EE> transform(@NonNull Function<? super R, ? extends Attempt<? extends RR, ? extends EE>> resultTransformer,
+                                                      @NonNull Function<? super E, ? extends Attempt<? extends RR, ? extends EE>> errorTransformer) {
+    return new LazyAttempt<>(() -> evaluate().transform(resultTransformer, errorTransformer));
+  }
+
+  @Override public <RR, EE> Attempt<RR, EE> flatMap(@NonNull Function<? super Attempt<? super R, ? super E>, ? extends Attempt<? extends RR, ? extends EE>> mapper) {
+    return new LazyAttempt<>(() -> evaluate().flatMap(mapper));
+  }
+
+  /**
+   * Evaluates this {@link Attempt} to compare its outcome.
+   */
+  @Override public boolean equals(Object other) {
+    return other == this || evaluate().equals(other);
+  }
+
+  /**
+   * Evaluates this {@link Attempt} to hash its outcome.
+   */
+  @Override public int hashCode() {
+    return evaluate().hashCode();
+  }
+
+  @Override public String toString() {
+    var current = state.get();
+    return "LazyAttempt(" + (current instanceof Attempt ? current : "pending") + ")";
+  }
+
+  @SuppressWarnings("unchecked")
+  private Attempt<R, E> evaluate() {
+    for (; ; ) {
+      var current = state.get();
+      if (current instanceof Attempt) {
+        //noinspection unchecked
+        return (Attempt<R, E>) current;
+      }
+
+      if (current instanceof CompletableFuture) {
+        //noinspection unchecked
+        return FutureAttempt.joinUnwrapped((CompletableFuture<Attempt<R, E>>) current);
+      }
+
+      var evaluation = new CompletableFuture<Attempt<R, E>>();
+      if (!state.compareAndSet(current, evaluation)) continue;
+
+      //noinspection unchecked
+      @SuppressWarnings("unchecked")
+      var pending = (Pending<R, E>) current;
+      try {
+        //noinspection unchecked
+        @SuppressWarnings("unchecked")
+        var outcome = (Attempt<R, E>) Objects.requireNonNull(pending.supplier.get(), "supplied attempt");
+        state.set(outcome);
+        evaluation.complete(outcome);
+        return outcome;
+      } catch (RuntimeException | Error throwable) {
+        state.set(pending);
+        evaluation.completeExceptionally(throwable);
+        throw throwable;
+      }
+    }
+  }
+
+  private static final class Pending<R, E> {
+    private final Supplier<? extends Attempt<? extends R, ? extends E>> supplier;
+
+    private Pending(Supplier<? extends Attempt<? extends R, ? extends E>> supplier) {
+      this.supplier = supplier;
+    }
+  }
+}
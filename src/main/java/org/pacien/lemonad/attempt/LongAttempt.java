@@ -0,0 +1,187 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import lombok.NonNull;
+
+/**
+ * Wraps either a {@code long} value from a success or an error from a failure, without boxing the result.
+ *
+ * @param <E> the potential error type.
+ * @author pacien
+ * @see Attempt
+ */
+public interface LongAttempt<E> {
+  /**
+   * @return whether the {@link LongAttempt} is successful.
+   */
+  boolean isSuccess();
+
+  /**
+   * @return whether the {@link LongAttempt} is failed.
+   */
+  boolean isFailure();
+
+  /**
+   * @return the result if this {@link LongAttempt} is a success.
+   * @throws java.util.NoSuchElementException if this {@link LongAttempt} is a failure.
+   */
+  long getResult();
+
+  /**
+   * @return the error if this {@link LongAttempt} is a failure.
+   * @throws java.util.NoSuchElementException if this {@link LongAttempt} is a success.
+   */
+  E getError();
+
+  /**
+   * @param resultConsumer a consumer of result called if the {@link LongAttempt} is a success.
+   * @return the current {@link LongAttempt}.
+   */
+  default LongAttempt<E> ifSuccess(@NonNull LongConsumer resultConsumer) {
+    if (isSuccess()) resultConsumer.accept(getResult());
+    return this;
+  }
+
+  /**
+   * @param errorConsumer a {@link Consumer} of error called if the {@link LongAttempt} is a failure.
+   * @return the current {@link LongAttempt}.
+   */
+  default LongAttempt<E> ifFailure(@NonNull Consumer<? super E> errorConsumer) {
+    if (isFailure()) errorConsumer.accept(getError());
+    return this;
+  }
+
+  /**
+   * @param transformer a function producing an {@link LongAttempt}, called with the current result if this {@link LongAttempt} is a success.
+   * @return this {@link LongAttempt} if it is a failure, or the produced one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default LongAttempt<E> transformResult(@NonNull LongFunction<? extends LongAttempt<? extends E>> transformer) {
+    //noinspection unchecked
+    return (LongAttempt<E>) (isSuccess() ? transformer.apply(getResult()) : this);
+  }
+
+  /**
+   * @param transformer a function producing an {@link Attempt}, called with the current result if this {@link LongAttempt} is a success.
+   * @return an {@link Attempt} with the error of this {@link LongAttempt} if it is a failure, or the produced one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <RR> Attempt<RR, E> transformResultToObj(@NonNull LongFunction<? extends Attempt<? extends RR, ? extends E>> transformer) {
+    //noinspection unchecked
+    return isSuccess() ? (Attempt<RR, E>) transformer.apply(getResult()) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result if this {@link LongAttempt} is a success.
+   * @return this {@link LongAttempt} if it is a failure, or the mutated one otherwise.
+   */
+  default LongAttempt<E> mapResult(@NonNull LongUnaryOperator mapper) {
+    return isSuccess() ? success(mapper.applyAsLong(getResult())) : this;
+  }
+
+  /**
+   * @param mapper a function mapping the result if this {@link LongAttempt} is a success.
+   * @return an {@link Attempt} with the mapped result, or with the error of this {@link LongAttempt}.
+   */
+  default <RR> Attempt<RR, E> mapResultToObj(@NonNull LongFunction<? extends RR> mapper) {
+    return isSuccess() ? Attempt.success(mapper.apply(getResult())) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code int} if this {@link LongAttempt} is a success.
+   * @return a {@link IntAttempt} with the mapped result, or with the error of this {@link LongAttempt}.
+   */
+  default IntAttempt<E> mapResultToInt(@NonNull LongToIntFunction mapper) {
+    return isSuccess() ? IntAttempt.success(mapper.applyAsInt(getResult())) : IntAttempt.failure(getError());
+  }
+
+  /**
+   * @param mapper a function mapping the result to a {@code double} if this {@link LongAttempt} is a success.
+   * @return a {@link DoubleAttempt} with the mapped result, or with the error of this {@link LongAttempt}.
+   */
+  default DoubleAttempt<E> mapResultToDouble(@NonNull LongToDoubleFunction mapper) {
+    return isSuccess() ? DoubleAttempt.success(mapper.applyAsDouble(getResult())) : DoubleAttempt.failure(getError());
+  }
+
+  /**
+   * @param recoverer a function producing an {@link LongAttempt}, called with the current error if this {@link LongAttempt} is a failure.
+   * @return this {@link LongAttempt} if it is a success, or the alternative {@link LongAttempt} retrieved from the recoverer otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <EE> LongAttempt<EE> recoverError(@NonNull Function<? super E, ? extends LongAttempt<? extends EE>> recoverer) {
+    //noinspection unchecked
+    return (LongAttempt<EE>) (isFailure() ? recoverer.apply(getError()) : this);
+  }
+
+  /**
+   * @param mapper a function mapping the error if this {@link LongAttempt} is a failure.
+   * @return this {@link LongAttempt} if it is a success, or the mutated one otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  default <EE> LongAttempt<EE> mapError(@NonNull Function<? super E, ? extends EE> mapper) {
+    //noinspection unchecked
+    return isFailure() ? failure(mapper.apply(getError())) : (LongAttempt<EE>) this;
+  }
+
+  /**
+   * @return an {@link Attempt} wrapping the boxed result or the error of this {@link LongAttempt}.
+   */
+  default Attempt<Long, E> boxed() {
+    return isSuccess() ? Attempt.success(getResult()) : Attempt.failure(getError());
+  }
+
+  /**
+   * @param result the result of the {@link LongAttempt}.
+   * @return a successful {@link LongAttempt} wrapping the supplied result.
+   */
+  static <E> LongAttempt<E> success(long result) {
+    return new LongSuccess<>(result);
+  }
+
+  /**
+   * @param error the cause of the failure of the {@link LongAttempt}.
+   * @return a failed {@link LongAttempt} with the supplied error.
+   */
+  static <E> LongAttempt<E> failure(E error) {
+    return new LongFailure<>(error);
+  }
+
+  /**
+   * @param supplier a supplier of {@code long} that may throw an {@link Throwable}.
+   * @return an {@link LongAttempt} wrapping either the result of the execution of the supplier or any thrown {@link Throwable}.
+   */
+  @SuppressWarnings("unchecked")
+  static <E extends Throwable> LongAttempt<E> attempt(@NonNull ThrowingLongSupplier<? extends E> supplier) {
+    try {
+      return success(supplier.getAsLong());
+    } catch (Throwable throwable) {
+      //noinspection unchecked
+      return (LongAttempt<E>) failure(throwable);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Value;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Mutable accumulator of {@link Attempt}s and immutable {@link PartitionedAttempts} once finished.
+ *
+ * @author pacien
+ */
+@Value class PartitionContainer<R, E> implements PartitionedAttempts<R, E> {
+  List<R> results;
+  List<E> errors;
+
+  static <R, E> PartitionContainer<R, E> empty() {
+    return new PartitionContainer<>(new ArrayList<>(), new ArrayList<>());
+  }
+
+  static <R, E> PartitionContainer<R, E> withCapacity(int expectedSize) {
+    return new PartitionContainer<>(new ArrayList<>(expectedSize), new ArrayList<>(expectedSize));
+  }
+
+  void add(Attempt<? extends R, ? extends E> attempt) {
+    if (attempt.isSuccess()) results.add(attempt.getResult());
+    else errors.add(attempt.getError());
+  }
+
+  PartitionContainer<R, E> combine(PartitionContainer<R, E> other) {
+    results.addAll(other.results);
+    errors.addAll(other.errors);
+    return this;
+  }
+
+  PartitionContainer<R, E> finish() {
+    return new PartitionContainer<>(unmodifiableList(results), unmodifiableList(errors));
+  }
+}
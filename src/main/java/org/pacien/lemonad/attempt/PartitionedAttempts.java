@@ -0,0 +1,40 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.List;
+
+/**
+ * Wraps the results and the errors of many {@link Attempt}s.
+ *
+ * @param <R> the result type.
+ * @param <E> the error type.
+ * @author pacien
+ */
+public interface PartitionedAttempts<R, E> {
+  /**
+   * @return the results of the successful {@link Attempt}s, in encounter order.
+   */
+  List<R> getResults();
+
+  /**
+   * @return the errors of the failed {@link Attempt}s, in encounter order.
+   */
+  List<E> getErrors();
+}
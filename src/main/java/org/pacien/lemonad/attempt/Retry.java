@@ -0,0 +1,183 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import lombok.NonNull;
+
+/**
+ * Retry policy re-running a supplier of {@link Attempt} while it fails with a retryable error.
+ * <p>
+ * The retries are delayed by an exponential backoff with full jitter: the delay before the n-th retry is drawn
+ * uniformly between zero and the base delay doubled n - 1 times, capped to a maximum delay.
+ * The retries may additionally be capped by a {@link RetryBudget} shared across callers,
+ * in which case the last failure is returned as soon as the budget denies a retry.
+ *
+ * @param <E> the error type.
+ * @author pacien
+ */
+public final class Retry<E> {
+  private final Predicate<? super E> retryable;
+  private final int maxAttempts;
+  private final long baseDelayNanos;
+  private final long maxDelayNanos;
+  private final RetryBudget budget;
+  private final LongAdder attempts = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder exhaustions = new LongAdder();
+
+  private Retry(Predicate<? super E> retryable, int maxAttempts, long baseDelayNanos, long maxDelayNanos, RetryBudget budget) {
+    this.retryable = retryable;
+    this.maxAttempts = maxAttempts;
+    this.baseDelayNanos = baseDelayNanos;
+    this.maxDelayNanos = maxDelayNanos;
+    this.budget = budget;
+  }
+
+  /**
+   * @param retryable   a predicate telling whether a call failing with an error should be retried.
+   * @param maxAttempts the maximum number of calls, including the first one.
+   * @param baseDelay   the upper bound of the delay before the first retry.
+   * @param maxDelay    the upper bound of the delay before any retry.
+   * @return a {@link Retry} policy without budget.
+   */
+  public static <E> Retry<E> of(@NonNull Predicate<? super E> retryable, int maxAttempts,
+                                @NonNull Duration baseDelay, @NonNull Duration maxDelay) {
+    if (maxAttempts < 1) throw new IllegalArgumentException("The maximum number of attempts must be positive.");
+    if (baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0)
+      throw new IllegalArgumentException("The delays must not be negative, and the maximum one must not be lower than the base one.");
+    return new Retry<>(retryable, maxAttempts, baseDelay.toNanos(), maxDelay.toNanos(), null);
+  }
+
+  /**
+   * @param budget a {@link RetryBudget} to draw each retry from, typically shared across several policies.
+   * @return a {@link Retry} policy with the same parameters, capped by the budget, and with its own counters.
+   */
+  public Retry<E> withBudget(@NonNull RetryBudget budget) {
+    return new Retry<>(retryable, maxAttempts, baseDelayNanos, maxDelayNanos, budget);
+  }
+
+  /**
+   * Calls a supplier until it succeeds, fails with a non-retryable error, or may not be retried,
+   * sleeping on the calling thread between the calls.
+   * If the thread is interrupted while sleeping, the last failure is returned with the interrupt flag set.
+   *
+   * @param supplier a {@link Supplier} of {@link Attempt}, such as a call to {@link Attempt#attempt}.
+   * @return the last {@link Attempt} returned by the supplier.
+   */
+  public <R> Attempt<R, E> apply(@NonNull Supplier<? extends Attempt<? extends R, ? extends E>> supplier) {
+    for (var attempt = 1; ; attempt++) {
+      var outcome = call(supplier);
+      if (!shouldRetry(outcome, attempt)) return outcome;
+
+      try {
+        TimeUnit.NANOSECONDS.sleep(delayNanos(attempt));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return outcome;
+      }
+    }
+  }
+
+  /**
+   * Calls a supplier on a scheduler until it succeeds, fails with a non-retryable error, or may not be retried,
+   * scheduling the retries after their delay without blocking any thread in between.
+   *
+   * @param supplier  a {@link Supplier} of {@link Attempt}, such as a call to {@link Attempt#attempt}.
+   * @param scheduler the {@link ScheduledExecutorService} on which to run the calls and the following stages.
+   * @return an {@link AsyncAttempt} completed with the last {@link Attempt} returned by the supplier.
+   */
+  public <R> AsyncAttempt<R, E> applyAsync(@NonNull Supplier<? extends Attempt<? extends R, ? extends E>> supplier,
+                                           @NonNull ScheduledExecutorService scheduler) {
+    var future = new CompletableFuture<Attempt<R, E>>();
+    schedule(supplier, scheduler, future, 1, 0);
+    return AsyncAttempt.fromAttemptStage(future, scheduler);
+  }
+
+  /**
+   * @return the number of calls made to the suppliers, including the retries.
+   */
+  public long getAttemptCount() {
+    return attempts.sum();
+  }
+
+  /**
+   * @return the number of retries made.
+   */
+  public long getRetryCount() {
+    return retries.sum();
+  }
+
+  /**
+   * @return the number of retryable failures returned because no attempt or budget was left to retry them.
+   */
+  public long getExhaustedCount() {
+    return exhaustions.sum();
+  }
+
+  private <R> void schedule(Supplier<? extends Attempt<? extends R, ? extends E>> supplier, ScheduledExecutorService scheduler,
+                            CompletableFuture<Attempt<R, E>> future, int attempt, long delayNanos) {
+    try {
+      scheduler.schedule(() -> {
+        try {
+          var outcome = this.<R>call(supplier);
+          if (shouldRetry(outcome, attempt)) schedule(supplier, scheduler, future, attempt + 1, delayNanos(attempt));
+          else future.complete(outcome);
+        } catch (Throwable throwable) {
+          future.completeExceptionally(throwable);
+        }
+      }, delayNanos, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <R> Attempt<R, E> call(Supplier<? extends Attempt<? extends R, ? extends E>> supplier) {
+    attempts.increment();
+    //noinspection unchecked
+    return (Attempt<R, E>) supplier.get();
+  }
+
+  private boolean shouldRetry(Attempt<?, E> outcome, int attempt) {
+    if (outcome.isSuccess() || !retryable.test(outcome.getError())) return false;
+    if (attempt >= maxAttempts || (budget != null && !budget.tryAcquire())) {
+      exhaustions.increment();
+      return false;
+    }
+
+    retries.increment();
+    return true;
+  }
+
+  private long delayNanos(int attempt) {
+    var shift = attempt - 1;
+    var bound = shift >= Long.numberOfLeadingZeros(baseDelayNanos) - 1 ? maxDelayNanos : Math.min(maxDelayNanos, baseDelayNanos << shift);
+    return bound == 0 ? 0 : ThreadLocalRandom.current().nextLong(bound);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import lombok.NonNull;
+
+/**
+ * Token bucket capping the rate of retries across all the callers sharing it,
+ * so that retries cannot multiply the load on a dependency which is already failing.
+ * <p>
+ * The bucket is implemented as a generic cell rate algorithm, tracking in a single {@link AtomicLong}
+ * the theoretical time at which the bucket would be full again.
+ *
+ * @author pacien
+ * @see Retry
+ */
+public final class RetryBudget {
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final LongSupplier nanoClock;
+  private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+  private final LongAdder rejections = new LongAdder();
+
+  private RetryBudget(long intervalNanos, long burstNanos, LongSupplier nanoClock) {
+    this.intervalNanos = intervalNanos;
+    this.burstNanos = burstNanos;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * @param retriesPerSecond the sustained rate of retries allowed.
+   * @param burst            the number of retries allowed at once after a quiet period.
+   * @return a full {@link RetryBudget}.
+   */
+  public static RetryBudget of(double retriesPerSecond, int burst) {
+    return of(retriesPerSecond, burst, System::nanoTime);
+  }
+
+  /**
+   * @param retriesPerSecond the sustained rate of retries allowed.
+   * @param burst            the number of retries allowed at once after a quiet period.
+   * @param nanoClock        the monotonic time source in nanoseconds, such as {@link System#nanoTime()}.
+   * @return a full {@link RetryBudget}.
+   */
+  public static RetryBudget of(double retriesPerSecond, int burst, @NonNull LongSupplier nanoClock) {
+    if (!(retriesPerSecond > 0)) throw new IllegalArgumentException("The retry rate must be positive.");
+    if (burst < 1) throw new IllegalArgumentException("The burst size must be positive.");
+    var intervalNanos = Math.max(1, (long) (1e9 / retriesPerSecond));
+    var burstNanos = intervalNanos > Long.MAX_VALUE / 2 / burst ? Long.MAX_VALUE / 2 : intervalNanos * burst;
+    return new RetryBudget(intervalNanos, burstNanos, nanoClock);
+  }
+
+  /**
+   * @return whether a retry is permitted, consuming a token if so.
+   */
+  public boolean tryAcquire() {
+    var now = nanoClock.getAsLong();
+    for (var current = theoreticalArrivalTime.get(); ; current = theoreticalArrivalTime.get()) {
+      var next = Math.max(current, now) + intervalNanos;
+      if (next - now > burstNanos) {
+        rejections.increment();
+        return false;
+      }
+
+      if (theoreticalArrivalTime.compareAndSet(current, next)) return true;
+    }
+  }
+
+  /**
+   * @return the number of retries denied since the creation of the budget.
+   */
+  public long getRejectionCount() {
+    return rejections.sum();
+  }
+}
@@ -19,6 +19,7 @@
 package org.pacien.lemonad.attempt;
 
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 import lombok.Value;
 
@@ -39,4 +40,15 @@ import lombok.Value;
   @Override public E getError() {
     throw new NoSuchElementException();
   }
+
+  @Override public boolean equals(Object other) {
+    if (other == this) return true;
+    if (!(other instanceof Attempt)) return false;
+    var that = (Attempt<?, ?>) other;
+    return that.isSuccess() && Objects.equals(result, that.getResult());
+  }
+
+  @Override public int hashCode() {
+    return Objects.hashCode(result);
+  }
 }
@@ -0,0 +1,80 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.codec;
+
+import java.nio.ByteBuffer;
+
+import org.pacien.lemonad.attempt.Attempt;
+
+import lombok.NonNull;
+
+/**
+ * {@link Codec} of {@link Attempt}s, as a tag byte followed by either the result or the error.
+ *
+ * @param <R> the result type.
+ * @param <E> the error type.
+ * @author pacien
+ */
+public final class AttemptCodec<R, E> implements Codec<Attempt<R, E>> {
+  private static final byte SUCCESS = 0;
+  private static final byte FAILURE = 1;
+
+  private final Codec<R> resultCodec;
+  private final Codec<E> errorCodec;
+
+  private AttemptCodec(Codec<R> resultCodec, Codec<E> errorCodec) {
+    this.resultCodec = resultCodec;
+    this.errorCodec = errorCodec;
+  }
+
+  /**
+   * @param resultCodec the {@link Codec} of the results.
+   * @param errorCodec  the {@link Codec} of the errors.
+   * @return an {@link AttemptCodec}.
+   */
+  public static <R, E> AttemptCodec<R, E> of(@NonNull Codec<R> resultCodec, @NonNull Codec<E> errorCodec) {
+    return new AttemptCodec<>(resultCodec, errorCodec);
+  }
+
+  @Override public int size(@NonNull Attempt<R, E> attempt) {
+    return 1 + (attempt.isSuccess() ? resultCodec.size(attempt.getResult()) : errorCodec.size(attempt.getError()));
+  }
+
+  @Override public void write(@NonNull Attempt<R, E> attempt, @NonNull ByteBuffer buffer) {
+    if (attempt.isSuccess()) {
+      buffer.put(SUCCESS);
+      resultCodec.write(attempt.getResult(), buffer);
+    } else {
+      buffer.put(FAILURE);
+      errorCodec.write(attempt.getError(), buffer);
+    }
+  }
+
+  @Override public Attempt<R, E> read(@NonNull ByteBuffer buffer) {
+    var tag = buffer.get();
+    switch (tag) {
+      case SUCCESS:
+        return Attempt.success(resultCodec.read(buffer));
+      case FAILURE:
+        return Attempt.failure(errorCodec.read(buffer));
+      default:
+        throw new IllegalArgumentException("Malformed attempt tag: " + tag);
+    }
+  }
+}
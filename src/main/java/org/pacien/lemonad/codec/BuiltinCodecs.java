@@ -0,0 +1,190 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The {@link Codec}s of the common value types.
+ *
+ * @author pacien
+ */
+final class BuiltinCodecs {
+  private BuiltinCodecs() {
+  }
+
+  /**
+   * @return the length prefix of a byte sequence, checked against the remaining bytes of the buffer.
+   * @throws BufferUnderflowException if the buffer ends before the byte sequence.
+   */
+  private static int readByteLength(ByteBuffer buffer) {
+    var length = VarInts.readLength(buffer);
+    if (length > buffer.remaining()) throw new BufferUnderflowException();
+    return length;
+  }
+
+  static final Codec<Boolean> BOOLEAN = new Codec<>() {
+    @Override public int size(Boolean value) {
+      return 1;
+    }
+
+    @Override public void write(Boolean value, ByteBuffer buffer) {
+      buffer.put((byte) (value ? 1 : 0));
+    }
+
+    @Override public Boolean read(ByteBuffer buffer) {
+      return buffer.get() != 0;
+    }
+  };
+
+  static final Codec<Integer> INT = new Codec<>() {
+    @Override public int size(Integer value) {
+      return VarInts.size(VarInts.zigZag(value));
+    }
+
+    @Override public void write(Integer value, ByteBuffer buffer) {
+      VarInts.write(VarInts.zigZag(value), buffer);
+    }
+
+    @Override public Integer read(ByteBuffer buffer) {
+      return Math.toIntExact(VarInts.unZigZag(VarInts.read(buffer)));
+    }
+  };
+
+  static final Codec<Long> LONG = new Codec<>() {
+    @Override public int size(Long value) {
+      return VarInts.size(VarInts.zigZag(value));
+    }
+
+    @Override public void write(Long value, ByteBuffer buffer) {
+      VarInts.write(VarInts.zigZag(value), buffer);
+    }
+
+    @Override public Long read(ByteBuffer buffer) {
+      return VarInts.unZigZag(VarInts.read(buffer));
+    }
+  };
+
+  static final Codec<Double> DOUBLE = new Codec<>() {
+    @Override public int size(Double value) {
+      return Double.BYTES;
+    }
+
+    @Override public void write(Double value, ByteBuffer buffer) {
+      buffer.putDouble(value);
+    }
+
+    @Override public Double read(ByteBuffer buffer) {
+      return buffer.getDouble();
+    }
+  };
+
+  static final Codec<byte[]> BYTES = new Codec<>() {
+    @Override public int size(byte[] value) {
+      return VarInts.size(value.length) + value.length;
+    }
+
+    @Override public void write(byte[] value, ByteBuffer buffer) {
+      VarInts.write(value.length, buffer);
+      buffer.put(value);
+    }
+
+    @Override public byte[] read(ByteBuffer buffer) {
+      var value = new byte[readByteLength(buffer)];
+      buffer.get(value);
+      return value;
+    }
+  };
+
+  static final Codec<String> STRING = new Codec<>() {
+    @Override public int size(String value) {
+      var length = utf8Length(value);
+      return VarInts.size(length) + length;
+    }
+
+    @Override public void write(String value, ByteBuffer buffer) {
+      BYTES.write(value.getBytes(UTF_8), buffer);
+    }
+
+    @Override public String read(ByteBuffer buffer) {
+      var length = readByteLength(buffer);
+      if (buffer.hasArray()) {
+        var value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+      }
+
+      var bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, UTF_8);
+    }
+  };
+
+  static final class ListCodec<T> implements Codec<List<T>> {
+    private final Codec<T> elementCodec;
+
+    ListCodec(Codec<T> elementCodec) {
+      this.elementCodec = elementCodec;
+    }
+
+    @Override public int size(List<T> value) {
+      var size = VarInts.size(value.size());
+      for (var element : value) size += elementCodec.size(element);
+      return size;
+    }
+
+    @Override public void write(List<T> value, ByteBuffer buffer) {
+      VarInts.write(value.size(), buffer);
+      for (var element : value) elementCodec.write(element, buffer);
+    }
+
+    @Override public List<T> read(ByteBuffer buffer) {
+      var count = VarInts.readLength(buffer);
+      var elements = new ArrayList<T>(Math.min(count, buffer.remaining()));
+      for (var i = 0; i < count; i++) elements.add(elementCodec.read(buffer));
+      return Collections.unmodifiableList(elements);
+    }
+  }
+
+  private static int utf8Length(String value) {
+    var length = 0;
+    for (var i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        length += 1; // unpaired surrogates are replaced by '?' when encoding
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.codec;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import lombok.NonNull;
+
+/**
+ * Binary encoding of values of a given type.
+ *
+ * @param <T> the value type.
+ * @author pacien
+ */
+public interface Codec<T> {
+  /**
+   * @param value the value to encode.
+   * @return the number of bytes {@link #write(Object, ByteBuffer)} puts for the value.
+   */
+  int size(T value);
+
+  /**
+   * @param value  the value to encode.
+   * @param buffer the buffer into which to put the encoded value, at its current position.
+   * @throws java.nio.BufferOverflowException if the buffer has not enough remaining space.
+   */
+  void write(T value, ByteBuffer buffer);
+
+  /**
+   * @param buffer the buffer from which to get the encoded value, at its current position.
+   * @return the decoded value.
+   * @throws java.nio.BufferUnderflowException if the buffer ends before the value.
+   */
+  T read(ByteBuffer buffer);
+
+  /**
+   * @return a {@link Codec} of {@code boolean}s, as single bytes.
+   */
+  static Codec<Boolean> ofBoolean() {
+    return BuiltinCodecs.BOOLEAN;
+  }
+
+  /**
+   * @return a {@link Codec} of {@code int}s, as zig-zag variable-length integers.
+   */
+  static Codec<Integer> ofInt() {
+    return BuiltinCodecs.INT;
+  }
+
+  /**
+   * @return a {@link Codec} of {@code long}s, as zig-zag variable-length integers.
+   */
+  static Codec<Long> ofLong() {
+    return BuiltinCodecs.LONG;
+  }
+
+  /**
+   * @return a {@link Codec} of {@code double}s, as their 8-byte IEEE 754 representation.
+   */
+  static Codec<Double> ofDouble() {
+    return BuiltinCodecs.DOUBLE;
+  }
+
+  /**
+   * @return a {@link Codec} of {@link String}s, as length-prefixed UTF-8 bytes.
+   */
+  static Codec<String> ofString() {
+    return BuiltinCodecs.STRING;
+  }
+
+  /**
+   * @return a {@link Codec} of byte arrays, prefixed with their length.
+   */
+  static Codec<byte[]> ofBytes() {
+    return BuiltinCodecs.BYTES;
+  }
+
+  /**
+   * @param elementCodec the {@link Codec} of the elements.
+   * @return a {@link Codec} of {@link List}s, prefixed with their size.
+   */
+  static <T> Codec<List<T>> ofList(@NonNull Codec<T> elementCodec) {
+    return new BuiltinCodecs.ListCodec<>(elementCodec);
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.codec;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import lombok.NonNull;
+
+/**
+ * Length-prefixed frames of encoded values.
+ * <p>
+ * A frame is made of its payload length as a 4-byte integer, in the byte order of the buffer, followed by the payload:
+ * the number of values as a variable-length integer, and the encoded values.
+ * Frames can be decoded lazily and in place from any {@link ByteBuffer}, including a memory-mapped file,
+ * without copying their bytes.
+ *
+ * @author pacien
+ */
+public final class Frames {
+  private Frames() {
+  }
+
+  /**
+   * @param codec  the {@link Codec} of the values.
+   * @param values the values to encode.
+   * @return the number of bytes of the frame holding the values.
+   */
+  public static <T> int size(@NonNull Codec<? super T> codec, @NonNull Collection<? extends T> values) {
+    return Integer.BYTES + payloadSize(codec, values);
+  }
+
+  /**
+   * @param codec  the {@link Codec} of the values.
+   * @param values the values to encode.
+   * @param buffer the buffer into which to put the frame, at its current position.
+   * @throws java.nio.BufferOverflowException if the buffer has not enough remaining space.
+   */
+  public static <T> void write(@NonNull Codec<? super T> codec, @NonNull Collection<? extends T> values, @NonNull ByteBuffer buffer) {
+    write(codec, values, payloadSize(codec, values), buffer);
+  }
+
+  /**
+   * @param codec   the {@link Codec} of the values.
+   * @param values  the values to encode.
+   * @param channel the channel to which to write the frame.
+   * @throws IOException if the channel cannot be written to.
+   */
+  public static <T> void write(@NonNull Codec<? super T> codec, @NonNull Collection<? extends T> values,
+                               @NonNull WritableByteChannel channel) throws IOException {
+    var payloadSize = payloadSize(codec, values);
+    var buffer = ByteBuffer.allocate(Integer.BYTES + payloadSize);
+    write(codec, values, payloadSize, buffer);
+    buffer.flip();
+    while (buffer.hasRemaining()) channel.write(buffer);
+  }
+
+  /**
+   * @param codec  the {@link Codec} of the values.
+   * @param buffer the buffer from which to get the frame, whose position is moved past it.
+   * @return the decoded values of the frame.
+   * @throws BufferUnderflowException if the buffer ends before the frame.
+   */
+  public static <T> List<T> read(@NonNull Codec<? extends T> codec, @NonNull ByteBuffer buffer) {
+    var payload = nextPayload(buffer);
+    var count = VarInts.readLength(payload);
+    var values = new ArrayList<T>(Math.min(count, payload.remaining()));
+    for (var i = 0; i < count; i++) values.add(codec.read(payload));
+    return values;
+  }
+
+  /**
+   * @param codec  the {@link Codec} of the values.
+   * @param buffer the buffer from which to get the frame, whose position is moved past it.
+   * @return an {@link Iterator} lazily decoding the values of the frame in place.
+   * @throws BufferUnderflowException if the buffer ends before the frame.
+   */
+  public static <T> Iterator<T> iterate(@NonNull Codec<? extends T> codec, @NonNull ByteBuffer buffer) {
+    var payload = nextPayload(buffer);
+    return new ValueIterator<>(codec, payload, VarInts.readLength(payload));
+  }
+
+  /**
+   * @param codec  the {@link Codec} of the values.
+   * @param buffer the buffer holding consecutive frames up to its limit, such as a memory-mapped file.
+   *               Its position is moved past each frame as the values are consumed.
+   * @return an {@link Iterator} lazily decoding the values of all the remaining frames in place.
+   */
+  public static <T> Iterator<T> iterateAll(@NonNull Codec<? extends T> codec, @NonNull ByteBuffer buffer) {
+    return new Iterator<>() {
+      private Iterator<T> frame = null;
+
+      @Override public boolean hasNext() {
+        while (frame == null || !frame.hasNext()) {
+          if (!buffer.hasRemaining()) return false;
+          frame = iterate(codec, buffer);
+        }
+        return true;
+      }
+
+      @Override public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return frame.next();
+      }
+    };
+  }
+
+  private static <T> int payloadSize(Codec<? super T> codec, Collection<? extends T> values) {
+    long size = VarInts.size(values.size());
+    for (var value : values) size += codec.size(value);
+    if (size > Integer.MAX_VALUE - Integer.BYTES) throw new IllegalArgumentException("The frame is too large.");
+    return (int) size;
+  }
+
+  private static <T> void write(Codec<? super T> codec, Collection<? extends T> values, int payloadSize, ByteBuffer buffer) {
+    buffer.putInt(payloadSize);
+    VarInts.write(values.size(), buffer);
+    for (var value : values) codec.write(value, buffer);
+  }
+
+  private static ByteBuffer nextPayload(ByteBuffer buffer) {
+    if (buffer.remaining() < Integer.BYTES) throw new BufferUnderflowException();
+    var length = buffer.getInt(buffer.position());
+    var start = buffer.position() + Integer.BYTES;
+    if (length < 0 || length > buffer.limit() - start) throw new BufferUnderflowException();
+
+    var payload = buffer.duplicate().position(start).limit(start + length).slice().order(buffer.order());
+    buffer.position(start + length);
+    return payload;
+  }
+
+  private static final class ValueIterator<T> implements Iterator<T> {
+    private final Codec<? extends T> codec;
+    private final ByteBuffer payload;
+    private int remaining;
+
+    private ValueIterator(Codec<? extends T> codec, ByteBuffer payload, int count) {
+      this.codec = codec;
+      this.payload = payload;
+      this.remaining = count;
+    }
+
+    @Override public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override public T next() {
+      if (remaining == 0) throw new NoSuchElementException();
+      remaining--;
+      return codec.read(payload);
+    }
+  }
+}
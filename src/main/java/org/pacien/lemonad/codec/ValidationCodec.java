@@ -0,0 +1,76 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import org.pacien.lemonad.validation.Validation;
+
+import lombok.NonNull;
+
+/**
+ * {@link Codec} of {@link Validation}s, as the subject followed by the count of errors and the errors.
+ *
+ * @param <S> the subject type.
+ * @param <E> the error type.
+ * @author pacien
+ */
+public final class ValidationCodec<S, E> implements Codec<Validation<S, E>> {
+  private final Codec<S> subjectCodec;
+  private final Codec<E> errorCodec;
+
+  private ValidationCodec(Codec<S> subjectCodec, Codec<E> errorCodec) {
+    this.subjectCodec = subjectCodec;
+    this.errorCodec = errorCodec;
+  }
+
+  /**
+   * @param subjectCodec the {@link Codec} of the subjects.
+   * @param errorCodec   the {@link Codec} of the errors.
+   * @return a {@link ValidationCodec}.
+   */
+  public static <S, E> ValidationCodec<S, E> of(@NonNull Codec<S> subjectCodec, @NonNull Codec<E> errorCodec) {
+    return new ValidationCodec<>(subjectCodec, errorCodec);
+  }
+
+  @Override public int size(@NonNull Validation<S, E> validation) {
+    var errors = validation.getErrors();
+    var size = subjectCodec.size(validation.getSubject()) + VarInts.size(errors.size());
+    for (var error : errors) size += errorCodec.size(error);
+    return size;
+  }
+
+  @Override public void write(@NonNull Validation<S, E> validation, @NonNull ByteBuffer buffer) {
+    subjectCodec.write(validation.getSubject(), buffer);
+    var errors = validation.getErrors();
+    VarInts.write(errors.size(), buffer);
+    for (var error : errors) errorCodec.write(error, buffer);
+  }
+
+  @Override public Validation<S, E> read(@NonNull ByteBuffer buffer) {
+    var subject = subjectCodec.read(buffer);
+    var count = VarInts.readLength(buffer);
+    if (count == 0) return Validation.of(subject);
+
+    var errors = new ArrayList<E>(Math.min(count, buffer.remaining()));
+    for (var i = 0; i < count; i++) errors.add(errorCodec.read(buffer));
+    return Validation.of(subject, errors);
+  }
+}
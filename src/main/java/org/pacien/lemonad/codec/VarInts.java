@@ -0,0 +1,67 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unsigned LEB128 variable-length integers, with zig-zag mapping for signed values.
+ *
+ * @author pacien
+ */
+final class VarInts {
+  private VarInts() {
+  }
+
+  static int size(long value) {
+    return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7);
+  }
+
+  static void write(long value, ByteBuffer buffer) {
+    while ((value & ~0x7fL) != 0) {
+      buffer.put((byte) ((value & 0x7f) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  static long read(ByteBuffer buffer) {
+    long value = 0;
+    for (var shift = 0; shift < Long.SIZE; shift += 7) {
+      var b = buffer.get();
+      value |= (long) (b & 0x7f) << shift;
+      if (b >= 0) return value;
+    }
+    throw new IllegalArgumentException("Malformed variable-length integer.");
+  }
+
+  static int readLength(ByteBuffer buffer) {
+    var length = read(buffer);
+    if (length < 0 || length > Integer.MAX_VALUE) throw new IllegalArgumentException("Malformed length: " + length);
+    return (int) length;
+  }
+
+  static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.instrumentation;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import jdk.jfr.EventType;
+
+import org.pacien.lemonad.attempt.Attempt;
+import org.pacien.lemonad.validation.Validation;
+
+import lombok.NonNull;
+
+/**
+ * Opt-in instrumentation of {@link Attempt} stages and {@link Validation} rules.
+ * <p>
+ * Wrapped stages and rules record their outcome and latency into a {@link MetricsSink} under a given name,
+ * and emit a JDK Flight Recorder {@code org.pacien.lemonad.SlowStage} event when they exceed the event threshold.
+ * A disabled {@link Instrumentation} returns the stages and rules unwrapped, adding no cost to their evaluation.
+ *
+ * @author pacien
+ */
+public final class Instrumentation {
+  private static final Instrumentation DISABLED = new Instrumentation(null);
+
+  private final MetricsSink sink;
+
+  private Instrumentation(MetricsSink sink) {
+    this.sink = sink;
+  }
+
+  /**
+   * @return an {@link Instrumentation} leaving the stages and rules untouched.
+   */
+  public static Instrumentation disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @param sink the {@link MetricsSink} receiving the measurements.
+   * @return an {@link Instrumentation} recording into the given sink.
+   */
+  public static Instrumentation of(@NonNull MetricsSink sink) {
+    return new Instrumentation(sink);
+  }
+
+  /**
+   * @return whether the stages and rules are being instrumented.
+   */
+  public boolean isEnabled() {
+    return sink != null;
+  }
+
+  /**
+   * @param name  the name under which the stage is recorded.
+   * @param stage a function producing an {@link Attempt}, such as one passed to {@link Attempt#transformResult(Function)}.
+   * @return the instrumented function, counting successful and failed {@link Attempt}s.
+   */
+  public <T, A extends Attempt<?, ?>> Function<T, A> stage(@NonNull String name, @NonNull Function<T, A> stage) {
+    return sink == null ? stage : timed(name, stage, Attempt::isSuccess);
+  }
+
+  /**
+   * @param name      the name under which the rule is recorded.
+   * @param predicate a predicate, such as one passed to {@link Validation#validate(Predicate, Object)}.
+   * @return the instrumented predicate, counting the subjects it accepted as successes.
+   */
+  public <T> Predicate<T> rule(@NonNull String name, @NonNull Predicate<T> predicate) {
+    if (sink == null) return predicate;
+    Function<T, Boolean> timed = timed(name, predicate::test, Boolean::booleanValue);
+    return timed::apply;
+  }
+
+  /**
+   * @param name      the name under which the rule is recorded.
+   * @param validator a function listing errors, such as one passed to {@link Validation#validate(Function)}.
+   * @return the instrumented function, counting the subjects without errors as successes.
+   */
+  public <T, L extends List<?>> Function<T, L> validator(@NonNull String name, @NonNull Function<T, L> validator) {
+    return sink == null ? validator : timed(name, validator, List::isEmpty);
+  }
+
+  /**
+   * @param name      the name under which the rule is recorded.
+   * @param validator a function producing a {@link Validation}, such as one passed to {@link Validation#merge(Function)}.
+   * @return the instrumented function, counting the valid {@link Validation}s as successes.
+   */
+  public <T, V extends Validation<?, ?>> Function<T, V> validation(@NonNull String name, @NonNull Function<T, V> validator) {
+    return sink == null ? validator : timed(name, validator, Validation::isValid);
+  }
+
+  /**
+   * @return the function recording its outcome and latency into the sink, and emitting a {@link SlowStageEvent} if enabled.
+   */
+  private <T, O> Function<T, O> timed(String name, Function<T, O> function, Predicate<? super O> isSuccess) {
+    var recorder = sink.recorder(name);
+    return subject -> {
+      var event = SlowStages.begin();
+      var start = System.nanoTime();
+      var success = false;
+      try {
+        var outcome = function.apply(subject);
+        success = isSuccess.test(outcome);
+        return outcome;
+      } finally {
+        recorder.record(success, System.nanoTime() - start);
+        if (event != null) SlowStages.commit(event, name, success);
+      }
+    };
+  }
+
+  /**
+   * Lazy holder of the {@link SlowStageEvent} type, only looked up once an enabled {@link Instrumentation} evaluates a function.
+   */
+  private static final class SlowStages {
+    private static final EventType TYPE = EventType.getEventType(SlowStageEvent.class);
+
+    /**
+     * @return a started {@link SlowStageEvent}, or {@code null} if the event is not being recorded.
+     */
+    static SlowStageEvent begin() {
+      if (!TYPE.isEnabled()) return null;
+      var event = new SlowStageEvent();
+      event.begin();
+      return event;
+    }
+
+    static void commit(SlowStageEvent event, String name, boolean success) {
+      event.end();
+      if (!event.shouldCommit()) return;
+      event.name = name;
+      event.success = success;
+      event.commit();
+    }
+  }
+}
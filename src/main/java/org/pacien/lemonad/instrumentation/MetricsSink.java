@@ -0,0 +1,36 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.instrumentation;
+
+import lombok.NonNull;
+
+/**
+ * Destination of the measurements of named stages and rules.
+ *
+ * @author pacien
+ */
+public interface MetricsSink {
+  /**
+   * Called once per instrumented stage or rule, when it is wrapped, so that the sink can resolve its storage ahead of time.
+   *
+   * @param name the name of the stage or rule.
+   * @return the {@link MetricsRecorder} receiving the measurements of the named stage or rule.
+   */
+  MetricsRecorder recorder(@NonNull String name);
+}
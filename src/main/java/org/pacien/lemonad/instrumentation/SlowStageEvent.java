@@ -0,0 +1,45 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event emitted for the evaluations of instrumented stages and rules exceeding the threshold.
+ *
+ * @author pacien
+ */
+@Name("org.pacien.lemonad.SlowStage")
+@Label("Slow Stage")
+@Category("lemonad")
+@Description("Evaluation of an instrumented Attempt stage or Validation rule exceeding the threshold")
+@Threshold("10 ms")
+@StackTrace(false)
+final class SlowStageEvent extends jdk.jfr.Event {
+  @Label("Name")
+  String name;
+
+  @Label("Success")
+  boolean success;
+}
@@ -0,0 +1,68 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.instrumentation;
+
+/**
+ * Measurements of a named stage or rule.
+ *
+ * @author pacien
+ */
+public interface StageMetrics {
+  /**
+   * @return the name of the stage or rule.
+   */
+  String getName();
+
+  /**
+   * @return the number of successful evaluations of the stage, or of satisfied evaluations of the rule.
+   */
+  long getSuccessCount();
+
+  /**
+   * @return the number of failed evaluations of the stage, or of violated evaluations of the rule.
+   */
+  long getFailureCount();
+
+  /**
+   * @return the latency histogram, whose {@code i}-th bucket counts the evaluations which took
+   * between {@code 2^i} inclusive and {@code 2^(i+1)} exclusive nanoseconds.
+   */
+  long[] getLatencyHistogram();
+
+  /**
+   * @param quantile a quantile between 0 and 1.
+   * @return an upper bound of the latency at the given quantile, in nanoseconds, or zero if nothing has been recorded.
+   */
+  default long getLatencyUpperBound(double quantile) {
+    if (quantile < 0 || quantile > 1) throw new IllegalArgumentException("The quantile must be between 0 and 1.");
+    var histogram = getLatencyHistogram();
+    long total = 0;
+    for (var count : histogram) total += count;
+    if (total == 0) return 0;
+
+    var rank = (long) Math.ceil(quantile * total);
+    long cumulated = 0;
+    for (var bucket = 0; bucket < histogram.length; bucket++) {
+      cumulated += histogram[bucket];
+      if (cumulated >= Math.max(1, rank)) return bucket >= 62 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+
+    return Long.MAX_VALUE;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.instrumentation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.NonNull;
+
+/**
+ * In-memory {@link MetricsSink} accumulating counts and log2-bucketed latency histograms into striped counters.
+ * Stages and rules sharing the same name share the same {@link StageMetrics}.
+ *
+ * @author pacien
+ */
+public final class StripedMetricsSink implements MetricsSink {
+  private final ConcurrentHashMap<String, StripedStageMetrics> metrics = new ConcurrentHashMap<>();
+
+  @Override public MetricsRecorder recorder(@NonNull String name) {
+    return metrics.computeIfAbsent(name, StripedStageMetrics::new);
+  }
+
+  /**
+   * @param name the name of a stage or rule.
+   * @return the measurements of the named stage or rule, if it has been instrumented.
+   */
+  public Optional<StageMetrics> getMetrics(@NonNull String name) {
+    return Optional.ofNullable(metrics.get(name));
+  }
+
+  /**
+   * @return a live view of the measurements of all the instrumented stages and rules, by name.
+   */
+  public Map<String, StageMetrics> getAllMetrics() {
+    return Collections.unmodifiableMap(metrics);
+  }
+}
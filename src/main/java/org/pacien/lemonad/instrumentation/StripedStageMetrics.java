@@ -0,0 +1,68 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link StageMetrics} accumulated into striped counters, cheap to update from many threads.
+ *
+ * @author pacien
+ */
+final class StripedStageMetrics implements StageMetrics, MetricsRecorder {
+  static final int BUCKET_COUNT = 64;
+
+  private final String name;
+  private final LongAdder successes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder[] latencies = newBuckets();
+
+  StripedStageMetrics(String name) {
+    this.name = name;
+  }
+
+  @Override public void record(boolean success, long durationNanos) {
+    (success ? successes : failures).increment();
+    latencies[63 - Long.numberOfLeadingZeros(Math.max(1, durationNanos))].increment();
+  }
+
+  @Override public String getName() {
+    return name;
+  }
+
+  @Override public long getSuccessCount() {
+    return successes.sum();
+  }
+
+  @Override public long getFailureCount() {
+    return failures.sum();
+  }
+
+  @Override public long[] getLatencyHistogram() {
+    var histogram = new long[BUCKET_COUNT];
+    for (var bucket = 0; bucket < BUCKET_COUNT; bucket++) histogram[bucket] = latencies[bucket].sum();
+    return histogram;
+  }
+
+  private static LongAdder[] newBuckets() {
+    var buckets = new LongAdder[BUCKET_COUNT];
+    for (var bucket = 0; bucket < BUCKET_COUNT; bucket++) buckets[bucket] = new LongAdder();
+    return buckets;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Evaluation order of an array of rules, adapted to their observed cost and failure rate.
+ * <p>
+ * The cost and outcome of the rules are sampled on a fraction of the evaluations.
+ * The rules are periodically sorted by increasing ratio of average cost to failure probability,
+ * so that cheap and selective rules come first, while every rule still comes after its prerequisites.
+ *
+ * @author pacien
+ */
+final class AdaptiveOrder {
+  private static final int SAMPLING_MASK = 0xf;
+  private static final int REORDER_PERIOD = 256;
+
+  private final Rule<?, ?, ?>[] rules;
+  private final PrerequisiteRanges ranges;
+  private final AtomicLongArray evaluations;
+  private final AtomicLongArray failures;
+  private final AtomicLongArray nanos;
+  private final AtomicLong samples = new AtomicLong();
+  private final AtomicBoolean reordering = new AtomicBoolean();
+  private volatile int[] order;
+
+  AdaptiveOrder(Rule<?, ?, ?>[] rules) {
+    this.rules = rules;
+    this.ranges = new PrerequisiteRanges(rules);
+    this.evaluations = new AtomicLongArray(rules.length);
+    this.failures = new AtomicLongArray(rules.length);
+    this.nanos = new AtomicLongArray(rules.length);
+    this.order = new int[rules.length];
+    for (var i = 0; i < rules.length; i++) order[i] = i;
+  }
+
+  /**
+   * @return the current evaluation order, as rule indices, which must not be modified.
+   */
+  int[] order() {
+    return order;
+  }
+
+  /**
+   * @return whether the current evaluation should be measured.
+   */
+  boolean shouldSample() {
+    return (ThreadLocalRandom.current().nextInt() & SAMPLING_MASK) == 0;
+  }
+
+  /**
+   * Records the measurement of a rule evaluated during a sampled evaluation.
+   */
+  void record(int rule, boolean failed, long durationNanos) {
+    evaluations.incrementAndGet(rule);
+    if (failed) failures.incrementAndGet(rule);
+    nanos.addAndGet(rule, durationNanos);
+  }
+
+  /**
+   * Signals the end of a sampled evaluation, periodically triggering the computation of a new order.
+   */
+  void endSample() {
+    if (samples.incrementAndGet() % REORDER_PERIOD == 0) reorder();
+  }
+
+  private void reorder() {
+    if (!reordering.compareAndSet(false, true)) return;
+    try {
+      var ranks = new double[rules.length];
+      for (var i = 0; i < rules.length; i++) ranks[i] = rank(i);
+
+      var unplaced = new int[ranges.size()];
+      for (var range = 0; range < unplaced.length; range++) unplaced[range] = ranges.length(range);
+
+      var placed = new boolean[rules.length];
+      var newOrder = new int[rules.length];
+      for (var position = 0; position < rules.length; position++) {
+        var best = -1;
+        for (var i = 0; i < rules.length; i++)
+          if (!placed[i] && isAvailable(i, unplaced) && (best < 0 || ranks[i] < ranks[best])) best = i;
+
+        placed[best] = true;
+        newOrder[position] = best;
+        for (var range = 0; range < unplaced.length; range++)
+          if (ranges.contains(range, best)) unplaced[range]--;
+      }
+
+      order = newOrder;
+    } finally {
+      reordering.set(false);
+    }
+  }
+
+  private double rank(int rule) {
+    var count = evaluations.get(rule);
+    if (count == 0) return 0; // unmeasured rules come first so that they get measured
+    var averageCost = (double) nanos.get(rule) / count;
+    var failureProbability = (failures.get(rule) + 1.) / (count + 2.);
+    return averageCost / failureProbability;
+  }
+
+  /**
+   * @param unplaced the number of rules of each prerequisite range not placed yet.
+   */
+  private boolean isAvailable(int rule, int[] unplaced) {
+    for (var range : ranges.rangesOf(rule))
+      if (unplaced[range] != 0) return false;
+
+    return true;
+  }
+}
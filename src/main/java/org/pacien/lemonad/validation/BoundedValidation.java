@@ -0,0 +1,129 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * {@link Validation} skipping the evaluation of further checks once a given number of errors has been reported.
+ *
+ * @author pacien
+ */
+@Value class BoundedValidation<S, E> implements Validation<S, E> {
+  S subject;
+  @NonNull ErrorList<E> errors;
+  int errorBudget;
+  E truncationMarker;
+  boolean truncated;
+
+  @Override public boolean isValid() {
+    return errors.isEmpty();
+  }
+
+  @Override public boolean isInvalid() {
+    return !isValid();
+  }
+
+  @Override public List<E> getErrors() {
+    return errors;
+  }
+
+  @Override public boolean equals(Object other) {
+    return ValidationContainer.equals(this, other);
+  }
+
+  @Override public int hashCode() {
+    return ValidationContainer.hashCode(this);
+  }
+
+  @Override public <F> Validation<S, E> validate(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Predicate<? super F> predicate,
+    E error
+  ) {
+    if (isExhausted()) return truncate();
+    return predicate.test(mapper.apply(subject)) ? this : merge(List.of(error));
+  }
+
+  @Override public Validation<S, E> validate(@NonNull Function<? super S, ? extends List<? extends E>> validator) {
+    return isExhausted() ? truncate() : merge(validator.apply(subject));
+  }
+
+  @Override public <F> Validation<S, E> validate(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Function<? super F, ? extends List<? extends E>> validator
+  ) {
+    return isExhausted() ? truncate() : merge(validator.apply(mapper.apply(subject)));
+  }
+
+  @Override public Validation<S, E> merge(@NonNull Function<? super S, ? extends Validation<?, ? extends E>> validator) {
+    return isExhausted() ? truncate() : merge(validator.apply(subject));
+  }
+
+  @Override public <F> Validation<S, E> merge(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Function<? super F, ? extends Validation<?, ? extends E>> validator
+  ) {
+    return isExhausted() ? truncate() : merge(validator.apply(mapper.apply(subject)));
+  }
+
+  @Override public <F, EE> Validation<S, E> validateEach(
+    @NonNull Function<? super S, ? extends Iterable<? extends F>> mapper,
+    @NonNull Function<? super F, ? extends Validation<?, ? extends EE>> elementValidator,
+    @NonNull BiFunction<Integer, ? super EE, ? extends E> errorAdapter
+  ) {
+    if (isExhausted()) return truncate();
+    var elements = mapper.apply(subject).iterator();
+    var merged = (BoundedValidation<S, E>) merge(ElementErrors.collect(elements, elementValidator, errorAdapter, errorBudget - errors.size()));
+    return elements.hasNext() ? merged.truncate() : merged;
+  }
+
+  @Override public Validation<S, E> merge(@NonNull Validation<?, ? extends E> validation) {
+    return merge(validation.getErrors());
+  }
+
+  @Override public Validation<S, E> merge(@NonNull Collection<? extends E> errors) {
+    if (errors.isEmpty()) return this;
+    if (isExhausted()) return truncate();
+
+    var remaining = errorBudget - this.errors.size();
+    if (errors.size() <= remaining) return with(this.errors.appendAll(errors), false);
+    return with(this.errors.appendAll(List.copyOf(errors).subList(0, remaining)), false).truncate();
+  }
+
+  private boolean isExhausted() {
+    return truncated || errors.size() >= errorBudget;
+  }
+
+  private BoundedValidation<S, E> truncate() {
+    if (truncated) return this;
+    return with(truncationMarker == null ? errors : errors.append(truncationMarker), true);
+  }
+
+  private BoundedValidation<S, E> with(ErrorList<E> errors, boolean truncated) {
+    return new BoundedValidation<>(subject, errors, errorBudget, truncationMarker, truncated);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Validating function able to stop checking its field once a given number of errors has been found,
+ * so that bounded and fail-fast evaluations of a {@link Validator} do not do more work than they report.
+ *
+ * @param <F> the field type.
+ * @param <E> the error type.
+ * @author pacien
+ */
+@FunctionalInterface
+interface BudgetedValidator<F, E> extends Function<F, List<? extends E>> {
+  /**
+   * @param field     the field to validate.
+   * @param maxErrors the number of errors after which the field may not be checked any further.
+   * @return the potentially empty list of errors, holding at least {@code maxErrors} errors if it has been cut short.
+   */
+  List<? extends E> apply(F field, int maxErrors);
+
+  @Override default List<? extends E> apply(F field) {
+    return apply(field, Integer.MAX_VALUE);
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.List;
+
+/**
+ * Wraps the results of the validation of many subjects.
+ *
+ * @param <S> the subject type,
+ * @param <E> the error type.
+ * @author pacien
+ */
+public interface BulkValidation<S, E> {
+  /**
+   * @return the {@link Validation} of each subject, in the encounter order of the subjects.
+   */
+  List<Validation<S, E>> getValidations();
+
+  /**
+   * @return the number of valid subjects.
+   */
+  int getValidCount();
+
+  /**
+   * @return the number of invalid subjects.
+   */
+  int getInvalidCount();
+
+  /**
+   * @return whether all the subjects are valid.
+   */
+  default boolean isValid() {
+    return getInvalidCount() == 0;
+  }
+
+  /**
+   * @return whether some subjects are invalid.
+   */
+  default boolean isInvalid() {
+    return !isValid();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Task validating the subjects of a sized {@link Spliterator}, recursively splitting it into forked sub-tasks
+ * until they are small enough, and writing each {@link Validation} at the index of its subject.
+ *
+ * @author pacien
+ */
+final class BulkValidationTask<S, E> extends RecursiveTask<Integer> implements Consumer<S> {
+  private static final long serialVersionUID = 1L;
+
+  private final Validator<S, E> validator;
+  private final Spliterator<? extends S> subjects;
+  private final Validation<S, E>[] results;
+  private final long threshold;
+  private int index;
+  private int invalidCount;
+
+  private BulkValidationTask(Validator<S, E> validator, Spliterator<? extends S> subjects, Validation<S, E>[] results, int offset, long threshold) {
+    this.validator = validator;
+    this.subjects = subjects;
+    this.results = results;
+    this.threshold = threshold;
+    this.index = offset;
+  }
+
+  /**
+   * @param validator the {@link Validator} to apply.
+   * @param subjects  the subjects to validate.
+   * @param pool      the pool running the validation tasks.
+   * @return the {@link BulkValidation} of the subjects.
+   */
+  static <S, E> BulkValidation<S, E> run(Validator<S, E> validator, Spliterator<? extends S> subjects, ForkJoinPool pool) {
+    var sized = subjects.hasCharacteristics(Spliterator.SUBSIZED)
+      ? subjects
+      : Arrays.spliterator(StreamSupport.stream(subjects, false).toArray());
+
+    var size = sized.getExactSizeIfKnown();
+    if (size > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many subjects.");
+
+    //noinspection unchecked
+    @SuppressWarnings("unchecked")
+    var results = (Validation<S, E>[]) new Validation<?, ?>[(int) size];
+    var threshold = Math.max(1, size / ((long) pool.getParallelism() << 2));
+    //noinspection unchecked
+    @SuppressWarnings("unchecked")
+    var invalidCount = pool.invoke(new BulkValidationTask<>(validator, (Spliterator<? extends S>) sized, results, 0, threshold));
+    return new BulkValidationContainer<>(unmodifiableList(Arrays.asList(results)), invalidCount);
+  }
+
+  @Override protected Integer compute() {
+    Spliterator<? extends S> prefix;
+    if (subjects.estimateSize() > threshold && (prefix = subjects.trySplit()) != null) {
+      var left = new BulkValidationTask<>(validator, prefix, results, index, threshold);
+      var right = new BulkValidationTask<>(validator, subjects, results, index + (int) prefix.getExactSizeIfKnown(), threshold);
+      left.fork();
+      return right.compute() + left.join();
+    }
+
+    subjects.forEachRemaining(this);
+    return invalidCount;
+  }
+
+  @Override public void accept(S subject) {
+    var validation = validator.apply(subject);
+    if (validation.isInvalid()) invalidCount++;
+    results[index++] = validation;
+  }
+}
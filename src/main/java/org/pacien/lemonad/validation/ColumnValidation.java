@@ -0,0 +1,89 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Wraps the results of the validation of a column of values, as one failure bitmap per rule.
+ * The {@link Validation}s of individual rows are only materialised on demand.
+ *
+ * @param <S> the boxed value type,
+ * @param <E> the error type.
+ * @author pacien
+ */
+public interface ColumnValidation<S, E> {
+  /**
+   * @return the number of validated rows.
+   */
+  int getRowCount();
+
+  /**
+   * @return the number of rules applied to each row.
+   */
+  int getRuleCount();
+
+  /**
+   * @param rule the index of a rule, in declaration order.
+   * @return a copy of the bitmap of the rows which violate the given rule.
+   */
+  BitSet getFailures(int rule);
+
+  /**
+   * @return a copy of the bitmap of the rows which violate at least one rule.
+   */
+  BitSet getInvalidRows();
+
+  /**
+   * @return the number of rows which violate at least one rule.
+   */
+  int getInvalidCount();
+
+  /**
+   * @param row the index of a row.
+   * @return whether the given row satisfies all the rules.
+   */
+  boolean isValid(int row);
+
+  /**
+   * @param row the index of a row.
+   * @return the {@link Validation} of the given row, with the errors of the rules it violates in declaration order.
+   */
+  Validation<S, E> getValidation(int row);
+
+  /**
+   * @return the {@link Validation}s of the invalid rows, in row order.
+   */
+  List<Validation<S, E>> getInvalidValidations();
+
+  /**
+   * @return whether all the rows are valid.
+   */
+  default boolean isValid() {
+    return getInvalidCount() == 0;
+  }
+
+  /**
+   * @return whether some rows are invalid.
+   */
+  default boolean isInvalid() {
+    return !isValid();
+  }
+}
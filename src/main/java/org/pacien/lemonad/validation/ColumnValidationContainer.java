@@ -0,0 +1,112 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * @author pacien
+ */
+final class ColumnValidationContainer<S, E> implements ColumnValidation<S, E> {
+  private final int rowCount;
+  private final IntFunction<? extends S> rowAccessor;
+  private final Object[] ruleErrors;
+  private final BitSet[] failures;
+  private final BitSet invalidRows;
+
+  ColumnValidationContainer(int rowCount, IntFunction<? extends S> rowAccessor, Object[] ruleErrors, BitSet[] failures) {
+    this.rowCount = rowCount;
+    this.rowAccessor = rowAccessor;
+    this.ruleErrors = ruleErrors;
+    this.failures = failures;
+    this.invalidRows = new BitSet(rowCount);
+    for (var ruleFailures : failures) invalidRows.or(ruleFailures);
+  }
+
+  /**
+   * @param rowCount     the number of rows.
+   * @param rowAccessor  the boxed value of each row, given its index.
+   * @param ruleErrors   the error of each rule.
+   * @param failureWords the failure bitmap of each rule, as built over words allocated by {@link #newFailureWords(int)}.
+   * @return the {@link ColumnValidation} of the rows.
+   */
+  static <S, E> ColumnValidation<S, E> of(int rowCount, IntFunction<? extends S> rowAccessor, Object[] ruleErrors, long[][] failureWords) {
+    var failures = new BitSet[failureWords.length];
+    for (var rule = 0; rule < failures.length; rule++) failures[rule] = BitSet.valueOf(failureWords[rule]);
+    return new ColumnValidationContainer<>(rowCount, rowAccessor, ruleErrors, failures);
+  }
+
+  /**
+   * @param rowCount the number of rows.
+   * @return the zeroed words of a failure bitmap holding one bit per row.
+   */
+  static long[] newFailureWords(int rowCount) {
+    return new long[(rowCount + Long.SIZE - 1) >>> 6];
+  }
+
+  @Override public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override public int getRuleCount() {
+    return failures.length;
+  }
+
+  @Override public BitSet getFailures(int rule) {
+    return (BitSet) failures[rule].clone();
+  }
+
+  @Override public BitSet getInvalidRows() {
+    return (BitSet) invalidRows.clone();
+  }
+
+  @Override public int getInvalidCount() {
+    return invalidRows.cardinality();
+  }
+
+  @Override public boolean isValid(int row) {
+    return !invalidRows.get(checkRow(row));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public Validation<S, E> getValidation(int row) {
+    if (isValid(row)) return Validation.of(rowAccessor.apply(row));
+
+    var errors = ErrorList.<E>empty();
+    for (var rule = 0; rule < failures.length; rule++) {
+      //noinspection unchecked
+      if (failures[rule].get(row)) errors = errors.append((E) ruleErrors[rule]);
+    }
+    return new ValidationContainer<>(rowAccessor.apply(row), errors);
+  }
+
+  @Override public List<Validation<S, E>> getInvalidValidations() {
+    var validations = new ArrayList<Validation<S, E>>(getInvalidCount());
+    for (var row = invalidRows.nextSetBit(0); row >= 0; row = invalidRows.nextSetBit(row + 1)) validations.add(getValidation(row));
+    return validations;
+  }
+
+  private int checkRow(int row) {
+    if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row: " + row + ", row count: " + rowCount);
+    return row;
+  }
+}
@@ -0,0 +1,406 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import lombok.NonNull;
+
+import static java.util.function.Function.identity;
+
+/**
+ * {@link Validator} holding a flat array of rules, in declaration order.
+ * The prerequisites of each rule always precede it in the array.
+ *
+ * @author pacien
+ */
+final class CompiledValidator<S, E> implements Validator<S, E> {
+  private static final CompiledValidator<?, ?> EMPTY = new CompiledValidator<>(newRules(0));
+
+  private final Rule<? super S, ?, ? extends E>[] rules;
+  private final AdaptiveOrder adaptiveOrder;
+  private volatile FieldIndex fieldIndex;
+
+  private CompiledValidator(Rule<? super S, ?, ? extends E>[] rules) {
+    this(rules, null);
+  }
+
+  private CompiledValidator(Rule<? super S, ?, ? extends E>[] rules, AdaptiveOrder adaptiveOrder) {
+    this.rules = rules;
+    this.adaptiveOrder = adaptiveOrder;
+  }
+
+  /**
+   * @return an empty array of the given length for the rules of a {@link CompiledValidator}.
+   */
+  @SuppressWarnings("unchecked")
+  private static <S, E> Rule<? super S, ?, ? extends E>[] newRules(int length) {
+    return (Rule<? super S, ?, ? extends E>[]) new Rule<?, ?, ?>[length];
+  }
+
+  @SuppressWarnings("unchecked")
+  static <S, E> CompiledValidator<S, E> empty() {
+    //noinspection unchecked
+    return (CompiledValidator<S, E>) EMPTY;
+  }
+
+  @Override public Validation<S, E> apply(S subject) {
+    return evaluate(subject, Integer.MAX_VALUE, null);
+  }
+
+  @Override public Validation<S, E> apply(S subject, int maxErrors, @NonNull E truncationMarker) {
+    if (maxErrors < 1) throw new IllegalArgumentException("The error budget must be positive.");
+    return evaluate(subject, maxErrors, truncationMarker);
+  }
+
+  @Override public Validation<S, E> applyFailFast(S subject) {
+    return adaptiveOrder == null ? evaluate(subject, 1, null) : evaluateFailFastAdaptively(subject);
+  }
+
+  @Override public boolean isValid(S subject) {
+    if (adaptiveOrder == null) {
+      for (var rule : rules)
+        if (!rule.apply(subject, 1).isEmpty()) return false;
+
+      return true;
+    }
+
+    var sampled = adaptiveOrder.shouldSample();
+    for (var i : adaptiveOrder.order()) {
+      if (!evaluateAdaptively(i, subject, sampled).isEmpty()) {
+        if (sampled) adaptiveOrder.endSample();
+        return false;
+      }
+    }
+
+    if (sampled) adaptiveOrder.endSample();
+    return true;
+  }
+
+  @Override public Validator<S, E> adaptive() {
+    return adaptiveOrder != null ? this : new CompiledValidator<>(rules, new AdaptiveOrder(rules));
+  }
+
+  private Validation<S, E> evaluate(S subject, int maxErrors, E truncationMarker) {
+    var errors = ErrorList.<E>empty();
+    long[] failed = null;
+    for (var i = 0; i < rules.length; i++) {
+      if (errors.size() >= maxErrors) return truncated(subject, errors, truncationMarker);
+
+      var rule = rules[i];
+      var remaining = maxErrors - errors.size();
+      var ruleErrors = rule.isBlockedBy(failed) ? null : rule.apply(subject, budget(remaining, truncationMarker));
+      if (ruleErrors != null && ruleErrors.isEmpty()) continue;
+
+      if (failed == null) failed = new long[(rules.length + Long.SIZE - 1) >>> 6];
+      failed[i >>> 6] |= 1L << i;
+      if (ruleErrors == null) continue;
+
+      if (ruleErrors.size() <= remaining) {
+        errors = errors.appendAll(ruleErrors);
+      } else {
+        errors = errors.appendAll(ruleErrors.subList(0, remaining));
+        return truncated(subject, errors, truncationMarker);
+      }
+    }
+
+    return new ValidationContainer<>(subject, errors);
+  }
+
+  /**
+   * Evaluates the rules in the adaptive order until the first failure,
+   * then evaluates the remaining rules declared before the failed one in declaration order,
+   * so as to report the same error as a sequential evaluation.
+   */
+  private Validation<S, E> evaluateFailFastAdaptively(S subject) {
+    var order = adaptiveOrder.order();
+    var sampled = adaptiveOrder.shouldSample();
+    var position = 0;
+    List<? extends E> firstErrors = null;
+    for (; position < order.length; position++) {
+      firstErrors = evaluateAdaptively(order[position], subject, sampled);
+      if (!firstErrors.isEmpty()) break;
+    }
+
+    if (position < order.length) {
+      var evaluated = new boolean[rules.length];
+      for (var i = 0; i <= position; i++) evaluated[order[i]] = true;
+      for (var i = 0; i < order[position]; i++) {
+        if (evaluated[i]) continue;
+        var ruleErrors = evaluateAdaptively(i, subject, sampled);
+        if (!ruleErrors.isEmpty()) {
+          firstErrors = ruleErrors;
+          break;
+        }
+      }
+    }
+
+    if (sampled) adaptiveOrder.endSample();
+    var errors = ErrorList.<E>empty();
+    return new ValidationContainer<>(subject, position < order.length ? errors.append(firstErrors.get(0)) : errors);
+  }
+
+  private List<? extends E> evaluateAdaptively(int rule, S subject, boolean sampled) {
+    if (!sampled) return rules[rule].apply(subject, 1);
+
+    var start = System.nanoTime();
+    var errors = rules[rule].apply(subject, 1);
+    adaptiveOrder.record(rule, !errors.isEmpty(), System.nanoTime() - start);
+    return errors;
+  }
+
+  @Override public IncrementalValidation<S, E> applyIncremental(S subject) {
+    var outcomes = new List<?>[rules.length];
+    var failed = new long[(rules.length + Long.SIZE - 1) >>> 6];
+    var errors = ErrorList.<E>empty();
+    var evaluated = 0;
+    for (var i = 0; i < rules.length; i++) {
+      if (rules[i].isBlockedBy(failed)) {
+        failed[i >>> 6] |= 1L << i;
+        continue;
+      }
+
+      var ruleErrors = rules[i].apply(subject);
+      outcomes[i] = ruleErrors;
+      evaluated++;
+      if (ruleErrors.isEmpty()) continue;
+
+      failed[i >>> 6] |= 1L << i;
+      errors = errors.appendAll(ruleErrors);
+    }
+
+    return new IncrementalValidationContainer<>(subject, errors, this, outcomes, failed, evaluated);
+  }
+
+  @Override public IncrementalValidation<S, E> revalidate(
+    @NonNull IncrementalValidation<S, E> previous,
+    S subject,
+    @NonNull Collection<? extends Function<? super S, ?>> changedFields
+  ) {
+    if (!(previous instanceof IncrementalValidationContainer) || ((IncrementalValidationContainer<S, E>) previous).getSource() != this)
+      throw new IllegalArgumentException("The previous validation has not been produced by this validator.");
+
+    var index = fieldIndex();
+    var affected = new BitSet(rules.length);
+    for (var rule : index.wholeSubjectRules) affected.set(rule);
+    for (var field : changedFields) {
+      var fieldRules = index.rulesByField.get(field);
+      if (fieldRules == null)
+        throw new IllegalArgumentException("The changed field getter has not been supplied to this validator: " + field);
+
+      for (var rule : fieldRules) affected.set(rule);
+    }
+
+    var previousValidation = (IncrementalValidationContainer<S, E>) previous;
+    var outcomes = previousValidation.getRuleErrors().clone();
+    var failed = previousValidation.getFailed().clone();
+    var triggeredRanges = new boolean[index.ranges.size()];
+    var errorsChanged = false;
+    var evaluated = 0;
+    for (var i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+      var previousOutcome = outcomes[i];
+      var wasFailed = (failed[i >>> 6] & (1L << i)) != 0;
+      if (rules[i].isBlockedBy(failed)) {
+        outcomes[i] = null;
+      } else {
+        outcomes[i] = rules[i].apply(subject);
+        evaluated++;
+      }
+
+      var isFailed = outcomes[i] == null || !outcomes[i].isEmpty();
+      if (isFailed) failed[i >>> 6] |= 1L << i;
+      else failed[i >>> 6] &= ~(1L << i);
+      errorsChanged |= !reported(previousOutcome).equals(reported(outcomes[i]));
+
+      if (wasFailed == isFailed) continue;
+      for (var range = 0; range < triggeredRanges.length; range++) {
+        if (triggeredRanges[range] || !index.ranges.contains(range, i)) continue;
+        triggeredRanges[range] = true;
+        for (var dependent : index.ranges.dependents(range)) affected.set(dependent);
+      }
+    }
+
+    var errors = errorsChanged ? IncrementalValidationContainer.<E>collect(outcomes) : previousValidation.getErrors();
+    return new IncrementalValidationContainer<>(subject, errors, this, outcomes, failed, evaluated);
+  }
+
+  private FieldIndex fieldIndex() {
+    var index = fieldIndex;
+    if (index == null) fieldIndex = index = new FieldIndex(rules);
+    return index;
+  }
+
+  private static List<?> reported(List<?> outcome) {
+    return outcome == null ? List.of() : outcome;
+  }
+
+  /**
+   * Index of the rules by the field they read, and of the rules depending on each prerequisite range, built on first use.
+   */
+  private static final class FieldIndex {
+    final Map<Function<?, ?>, int[]> rulesByField = new HashMap<>();
+    final int[] wholeSubjectRules;
+    final PrerequisiteRanges ranges;
+
+    FieldIndex(Rule<?, ?, ?>[] rules) {
+      var wholeSubject = new int[rules.length];
+      var wholeSubjectCount = 0;
+      for (var i = 0; i < rules.length; i++) {
+        var field = rules[i].getField();
+        if (field == null) wholeSubject[wholeSubjectCount++] = i;
+        else rulesByField.merge(field, new int[] {i}, FieldIndex::concat);
+      }
+
+      wholeSubjectRules = Arrays.copyOf(wholeSubject, wholeSubjectCount);
+      ranges = new PrerequisiteRanges(rules);
+    }
+
+    private static int[] concat(int[] left, int[] right) {
+      var merged = Arrays.copyOf(left, left.length + right.length);
+      System.arraycopy(right, 0, merged, left.length, right.length);
+      return merged;
+    }
+  }
+
+  /**
+   * @return the number of errors a rule may stop at, one more than the remaining budget if the truncation is to be marked,
+   * so that a rule cut short is told apart from one reporting exactly the remaining number of errors.
+   */
+  private static int budget(int remaining, Object truncationMarker) {
+    return truncationMarker == null || remaining == Integer.MAX_VALUE ? remaining : remaining + 1;
+  }
+
+  private static <S, E> Validation<S, E> truncated(S subject, ErrorList<E> errors, E truncationMarker) {
+    return new ValidationContainer<>(subject, truncationMarker == null ? errors : errors.append(truncationMarker));
+  }
+
+  @Override public Validator<S, E> validate(@NonNull Predicate<? super S> predicate, @NonNull E error) {
+    var errors = List.of(error);
+    return validate(subject -> predicate.test(subject) ? List.of() : errors);
+  }
+
+  @Override public <F> Validator<S, E> validate(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Predicate<? super F> predicate,
+    E error
+  ) {
+    var errors = List.of(error);
+    return validate(mapper, field -> predicate.test(field) ? List.of() : errors);
+  }
+
+  @Override public Validator<S, E> validate(@NonNull Function<? super S, ? extends List<? extends E>> validator) {
+    return with(new Rule<>(identity(), validator, Rule.NO_PREREQUISITES, null));
+  }
+
+  @Override public <F> Validator<S, E> validate(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Function<? super F, ? extends List<? extends E>> validator
+  ) {
+    return with(new Rule<>(mapper, validator, Rule.NO_PREREQUISITES, mapper));
+  }
+
+  @Override public Validator<S, E> merge(@NonNull Function<? super S, ? extends Validation<?, ? extends E>> validator) {
+    return validate(subject -> validator.apply(subject).getErrors());
+  }
+
+  @Override public <F> Validator<S, E> merge(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Function<? super F, ? extends Validation<?, ? extends E>> validator
+  ) {
+    return validate(mapper, field -> validator.apply(field).getErrors());
+  }
+
+  @Override public Validator<S, E> merge(@NonNull Validator<? super S, ? extends E> validator) {
+    return append(identity(), null, validator, Rule.NO_PREREQUISITES);
+  }
+
+  @Override public <F> Validator<S, E> merge(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Validator<? super F, ? extends E> validator
+  ) {
+    return append(mapper, mapper, validator, Rule.NO_PREREQUISITES);
+  }
+
+  @Override public Validator<S, E> whenValid(@NonNull Validator<? super S, ? extends E> dependent) {
+    return append(identity(), null, dependent, Rule.firstRules(rules.length));
+  }
+
+  @Override public <F> Validator<S, E> whenValid(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Validator<? super F, ? extends E> dependent
+  ) {
+    return append(mapper, mapper, dependent, Rule.firstRules(rules.length));
+  }
+
+  /**
+   * @param field the getter identifying the field read by the appended rules, or {@code null} if it is the whole subject.
+   */
+  private <F> CompiledValidator<S, E> append(
+    Function<? super S, ? extends F> mapper,
+    Function<? super S, ?> field,
+    Validator<? super F, ? extends E> validator,
+    int[] prerequisites
+  ) {
+    if (!(validator instanceof CompiledValidator)) {
+      Function<? super F, ? extends List<? extends E>> errors = subject -> validator.apply(subject).getErrors();
+      return with(new Rule<>(mapper, errors, prerequisites, field));
+    }
+
+    var nested = ((CompiledValidator<? super F, ? extends E>) validator).rules;
+    var extended = Arrays.copyOf(rules, rules.length + nested.length);
+    for (var i = 0; i < nested.length; i++) {
+      //noinspection unchecked
+      @SuppressWarnings("unchecked")
+      Rule<? super S, ?, ? extends E> rule = field == null
+        ? (Rule<? super S, ?, ? extends E>) (Rule<?, ?, ?>) nested[i]
+        : nested[i].compose(mapper);
+      extended[rules.length + i] = rule.relocate(rules.length, prerequisites);
+    }
+
+    return derive(extended);
+  }
+
+  @Override public <F, EE> Validator<S, E> validateEach(
+    @NonNull Function<? super S, ? extends Iterable<? extends F>> mapper,
+    @NonNull Function<? super F, ? extends Validation<?, ? extends EE>> elementValidator,
+    @NonNull BiFunction<Integer, ? super EE, ? extends E> errorAdapter
+  ) {
+    BudgetedValidator<Iterable<? extends F>, E> validator =
+      (elements, maxErrors) -> ElementErrors.collect(elements.iterator(), elementValidator, errorAdapter, maxErrors);
+    return validate(mapper, validator);
+  }
+
+  private CompiledValidator<S, E> with(Rule<? super S, ?, ? extends E> rule) {
+    var extended = Arrays.copyOf(rules, rules.length + 1);
+    extended[rules.length] = rule;
+    return derive(extended);
+  }
+
+  private CompiledValidator<S, E> derive(Rule<? super S, ?, ? extends E>[] extended) {
+    return new CompiledValidator<>(extended, adaptiveOrder == null ? null : new AdaptiveOrder(extended));
+  }
+}
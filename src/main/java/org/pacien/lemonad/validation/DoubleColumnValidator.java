@@ -0,0 +1,102 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.function.DoublePredicate;
+
+import lombok.NonNull;
+
+/**
+ * Immutable set of rules validating whole columns of {@code double} values.
+ * Each rule is applied in a tight loop over the column, producing a failure bitmap instead of a {@link Validation} per row.
+ *
+ * @param <E> the error type.
+ * @author pacien
+ */
+public final class DoubleColumnValidator<E> {
+  private static final DoubleColumnValidator<?> EMPTY = new DoubleColumnValidator<>(new DoublePredicate[0], new Object[0]);
+
+  private final DoublePredicate[] predicates;
+  private final Object[] errors;
+
+  private DoubleColumnValidator(DoublePredicate[] predicates, Object[] errors) {
+    this.predicates = predicates;
+    this.errors = errors;
+  }
+
+  /**
+   * @return an {@link DoubleColumnValidator} without any rule.
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> DoubleColumnValidator<E> of() {
+    //noinspection unchecked
+    return (DoubleColumnValidator<E>) EMPTY;
+  }
+
+  /**
+   * @param predicate the predicate the values must satisfy.
+   * @param error     the error reported for the values which do not satisfy the predicate.
+   * @return an {@link DoubleColumnValidator} with the additional rule.
+   */
+  public DoubleColumnValidator<E> validate(@NonNull DoublePredicate predicate, @NonNull E error) {
+    var newPredicates = Arrays.copyOf(predicates, predicates.length + 1);
+    var newErrors = Arrays.copyOf(errors, errors.length + 1);
+    newPredicates[predicates.length] = predicate;
+    newErrors[errors.length] = error;
+    return new DoubleColumnValidator<>(newPredicates, newErrors);
+  }
+
+  /**
+   * @param column the values to validate, which must not be modified while the result is in use.
+   * @return the {@link ColumnValidation} of the column.
+   */
+  public ColumnValidation<Double, E> apply(@NonNull double[] column) {
+    var failures = new long[predicates.length][];
+    for (var rule = 0; rule < predicates.length; rule++) {
+      var predicate = predicates[rule];
+      var words = ColumnValidationContainer.newFailureWords(column.length);
+      for (var row = 0; row < column.length; row++)
+        if (!predicate.test(column[row])) words[row >>> 6] |= 1L << row;
+      failures[rule] = words;
+    }
+    return ColumnValidationContainer.of(column.length, row -> column[row], errors, failures);
+  }
+
+  /**
+   * @param column the buffer whose remaining values to validate, which must not be modified while the result is in use.
+   *               Its position is left unchanged.
+   * @return the {@link ColumnValidation} of the remaining values of the buffer.
+   */
+  public ColumnValidation<Double, E> apply(@NonNull DoubleBuffer column) {
+    var values = column.duplicate();
+    var offset = values.position();
+    var rowCount = values.remaining();
+    var failures = new long[predicates.length][];
+    for (var rule = 0; rule < predicates.length; rule++) {
+      var predicate = predicates[rule];
+      var words = ColumnValidationContainer.newFailureWords(rowCount);
+      for (var row = 0; row < rowCount; row++)
+        if (!predicate.test(values.get(offset + row))) words[row >>> 6] |= 1L << row;
+      failures[rule] = words;
+    }
+    return ColumnValidationContainer.of(rowCount, row -> values.get(offset + row), errors, failures);
+  }
+}
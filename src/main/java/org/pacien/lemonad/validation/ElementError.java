@@ -0,0 +1,59 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+/**
+ * Wraps an error reported for an element of a nested collection, with the path of indices leading to that element.
+ *
+ * @param <E> the error type.
+ * @author pacien
+ */
+public interface ElementError<E> {
+  /**
+   * @return the indices leading to the invalid element, from the outermost collection to the innermost one.
+   * The returned array must not be modified.
+   */
+  int[] getPath();
+
+  /**
+   * @return the error reported for the element.
+   */
+  E getError();
+
+  /**
+   * @param index the index of the collection element containing the one this error has been reported for.
+   * @return an {@link ElementError} with the same error and the supplied index prepended to its path.
+   */
+  default ElementError<E> prefixed(int index) {
+    var path = getPath();
+    var prefixed = new int[path.length + 1];
+    prefixed[0] = index;
+    System.arraycopy(path, 0, prefixed, 1, path.length);
+    return new ElementErrorContainer<>(prefixed, getError());
+  }
+
+  /**
+   * @param index the index of the invalid element.
+   * @param error the error reported for the element.
+   * @return an {@link ElementError} for an element of a collection.
+   */
+  static <E> ElementError<E> of(int index, E error) {
+    return new ElementErrorContainer<>(new int[] {index}, error);
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Element-wise validation of collections, shared by {@link Validation} and {@link Validator}.
+ *
+ * @author pacien
+ */
+final class ElementErrors {
+  private ElementErrors() {
+  }
+
+  /**
+   * Validates elements one at a time, only retaining their adapted errors.
+   *
+   * @param elements         the elements to validate, consumed until the error budget is reached.
+   * @param elementValidator an element validating function returning a {@link Validation}.
+   * @param errorAdapter     a function adapting each element error given the index of its element.
+   * @param maxErrors        the number of errors after which no further element is pulled.
+   * @return the adapted errors of the validated elements.
+   */
+  static <F, EE, E> ErrorList<E> collect(
+    Iterator<? extends F> elements,
+    Function<? super F, ? extends Validation<?, ? extends EE>> elementValidator,
+    BiFunction<Integer, ? super EE, ? extends E> errorAdapter,
+    int maxErrors
+  ) {
+    var errors = ErrorList.<E>empty();
+    for (var index = 0; errors.size() < maxErrors && elements.hasNext(); index++) {
+      var validation = elementValidator.apply(elements.next());
+      if (validation.isValid()) continue;
+      for (var error : validation.getErrors()) errors = errors.append(errorAdapter.apply(index, error));
+    }
+    return errors;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable list of errors sharing its backing array with the lists it has been derived from.
+ * Appending to the latest list derived from a given array writes in place, making merges amortised constant-time,
+ * while appending to an older one copies its elements into a new array.
+ *
+ * @param <E> the error type.
+ * @author pacien
+ */
+final class ErrorList<E> extends AbstractList<E> implements RandomAccess {
+  private static final int MINIMUM_CAPACITY = 8;
+  private static final ErrorList<?> EMPTY = new ErrorList<>(new Object[0], new AtomicInteger(), 0);
+
+  private final Object[] elements;
+  private final AtomicInteger claimed;
+  private final int size;
+
+  private ErrorList(Object[] elements, AtomicInteger claimed, int size) {
+    this.elements = elements;
+    this.claimed = claimed;
+    this.size = size;
+  }
+
+  /**
+   * @return the empty {@link ErrorList}.
+   */
+  @SuppressWarnings("unchecked")
+  static <E> ErrorList<E> empty() {
+    //noinspection unchecked
+    return (ErrorList<E>) EMPTY;
+  }
+
+  /**
+   * @param errors the errors to copy, unless they are already held by an {@link ErrorList}.
+   * @return an {@link ErrorList} holding the supplied errors.
+   */
+  @SuppressWarnings("unchecked")
+  static <E> ErrorList<E> copyOf(Collection<? extends E> errors) {
+    //noinspection unchecked
+    return errors instanceof ErrorList ? (ErrorList<E>) errors : ErrorList.<E>empty().appendAll(errors);
+  }
+
+  /**
+   * @param error an error to append.
+   * @return a list holding the current errors followed by the supplied one.
+   */
+  ErrorList<E> append(E error) {
+    var target = claim(1);
+    target[size] = error;
+    return withElements(target, size + 1);
+  }
+
+  /**
+   * @param errors some errors to append.
+   * @return a list holding the current errors followed by the supplied ones.
+   */
+  ErrorList<E> appendAll(Collection<? extends E> errors) {
+    var added = errors instanceof ErrorList ? ((ErrorList<?>) errors).elements : errors.toArray();
+    var count = errors instanceof ErrorList ? errors.size() : added.length;
+    if (count == 0) return this;
+    var target = claim(count);
+    System.arraycopy(added, 0, target, size, count);
+    return withElements(target, size + count);
+  }
+
+  /**
+   * Claims the slots following the current errors in the shared array if they are free,
+   * or copies the current errors into a new larger array otherwise.
+   * The claimed slots are to be filled before publishing them through a new list,
+   * so that its final fields also make them visible.
+   */
+  private Object[] claim(int count) {
+    var newSize = size + count;
+    if (newSize <= elements.length && claimed.compareAndSet(size, newSize)) return elements;
+
+    var copy = new Object[Math.max(MINIMUM_CAPACITY, Math.max(newSize, size * 2))];
+    System.arraycopy(elements, 0, copy, 0, size);
+    return copy;
+  }
+
+  private ErrorList<E> withElements(Object[] target, int newSize) {
+    return new ErrorList<>(target, target == elements ? claimed : new AtomicInteger(newSize), newSize);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public E get(int index) {
+    Objects.checkIndex(index, size);
+    //noinspection unchecked
+    return (E) elements[index];
+  }
+
+  @Override public int size() {
+    return size;
+  }
+
+  @Override public Object[] toArray() {
+    return Arrays.copyOf(elements, size, Object[].class);
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+/**
+ * {@link Validation} produced by a {@link Validator}, retaining the outcome of each of its rules
+ * so that the subject can be revalidated incrementally after some of its fields changed.
+ *
+ * @param <S> the subject type,
+ * @param <E> the error type.
+ * @author pacien
+ * @see Validator#revalidate(IncrementalValidation, Object, java.util.Collection)
+ */
+public interface IncrementalValidation<S, E> extends Validation<S, E> {
+  /**
+   * @return the number of rules evaluated to produce this {@link Validation}, as opposed to reused from a previous one.
+   */
+  int getEvaluatedRuleCount();
+}
@@ -0,0 +1,107 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.List;
+
+/**
+ * @author pacien
+ */
+final class IncrementalValidationContainer<S, E> implements IncrementalValidation<S, E> {
+  private final S subject;
+  private final ErrorList<E> errors;
+  private final Object source;
+  private final List<?>[] ruleErrors;
+  private final long[] failed;
+  private final int evaluatedRuleCount;
+
+  /**
+   * @param errors             the errors of all the rules, in declaration order.
+   * @param source             the {@link Validator} whose rules produced the outcomes.
+   * @param ruleErrors         the errors of each rule, empty if it passed, or {@code null} if it was skipped.
+   * @param failed             the bitmap of the rules which failed or were skipped.
+   * @param evaluatedRuleCount the number of rules actually evaluated.
+   */
+  IncrementalValidationContainer(S subject, ErrorList<E> errors, Object source, List<?>[] ruleErrors, long[] failed, int evaluatedRuleCount) {
+    this.subject = subject;
+    this.errors = errors;
+    this.source = source;
+    this.ruleErrors = ruleErrors;
+    this.failed = failed;
+    this.evaluatedRuleCount = evaluatedRuleCount;
+  }
+
+  /**
+   * @param ruleErrors the errors of each rule, empty if it passed, or {@code null} if it was skipped.
+   * @return the errors of all the rules, in declaration order.
+   */
+  @SuppressWarnings("unchecked")
+  static <E> ErrorList<E> collect(List<?>[] ruleErrors) {
+    var errors = ErrorList.<E>empty();
+    for (var ruleError : ruleErrors) {
+      //noinspection unchecked
+      if (ruleError != null && !ruleError.isEmpty()) errors = errors.appendAll((List<? extends E>) ruleError);
+    }
+    return errors;
+  }
+
+  Object getSource() {
+    return source;
+  }
+
+  List<?>[] getRuleErrors() {
+    return ruleErrors;
+  }
+
+  long[] getFailed() {
+    return failed;
+  }
+
+  @Override public int getEvaluatedRuleCount() {
+    return evaluatedRuleCount;
+  }
+
+  @Override public S getSubject() {
+    return subject;
+  }
+
+  @Override public boolean isValid() {
+    return errors.isEmpty();
+  }
+
+  @Override public boolean isInvalid() {
+    return !isValid();
+  }
+
+  @Override public ErrorList<E> getErrors() {
+    return errors;
+  }
+
+  @Override public boolean equals(Object other) {
+    return ValidationContainer.equals(this, other);
+  }
+
+  @Override public int hashCode() {
+    return ValidationContainer.hashCode(this);
+  }
+
+  @Override public String toString() {
+    return "IncrementalValidation(subject=" + subject + ", errors=" + errors + ")";
+  }
+}
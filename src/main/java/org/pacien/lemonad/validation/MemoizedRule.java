@@ -0,0 +1,105 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import org.pacien.lemonad.attempt.Attempt;
+import org.pacien.lemonad.attempt.AttemptCache;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.NonNull;
+
+/**
+ * Size-bounded memoizing wrapper of a field validating function,
+ * reusing the errors reported for the field values repeated across subjects.
+ * It is meant to be passed to {@link Validator#validate(Function, Function)} for expensive checks,
+ * and is safe to share among concurrent validations such as {@link Validator#applyAll}.
+ * The {@code null} field values bypass the cache.
+ *
+ * @param <F> the field type.
+ * @param <E> the error type.
+ * @author pacien
+ * @see AttemptCache
+ */
+public final class MemoizedRule<F, E> implements Function<F, List<E>> {
+  private static final Duration RETENTION = ChronoUnit.FOREVER.getDuration();
+
+  private final Function<? super F, ? extends List<? extends E>> validator;
+  private final AttemptCache<F, List<E>, Void> cache;
+
+  private MemoizedRule(Function<? super F, ? extends List<? extends E>> validator, int maxSize) {
+    this.validator = validator;
+    this.cache = AttemptCache.of(field -> Attempt.success(ErrorList.copyOf(validator.apply(field))), maxSize, RETENTION, Duration.ZERO);
+  }
+
+  /**
+   * @param validator the validating function to memoize, returning a potentially empty list of errors.
+   * @param maxSize   the maximum number of distinct field values whose errors are retained.
+   * @return a {@link MemoizedRule} wrapping the validating function.
+   */
+  public static <F, E> MemoizedRule<F, E> of(@NonNull Function<? super F, ? extends List<? extends E>> validator, int maxSize) {
+    return new MemoizedRule<>(validator, maxSize);
+  }
+
+  /**
+   * @param field the field value to validate.
+   * @return the errors reported for an equal field value, or by the wrapped validating function.
+   */
+  @Override public List<E> apply(F field) {
+    return field == null ? ErrorList.copyOf(validator.apply(null)) : cache.apply(field).getResult();
+  }
+
+  /**
+   * @return the number of validations served from the cache.
+   */
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  /**
+   * @return the number of validations which called the wrapped validating function, excluding the {@code null} fields.
+   */
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  /**
+   * @return the number of validations which waited for the concurrent validation of an equal field value.
+   */
+  public long getJoinCount() {
+    return cache.getJoinCount();
+  }
+
+  /**
+   * @return the ratio of validations served from the cache without waiting, or zero if there has been none.
+   */
+  public double getHitRate() {
+    return cache.getHitRate();
+  }
+
+  /**
+   * @return the number of field values whose errors are currently retained.
+   */
+  public int size() {
+    return cache.size();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The distinct prerequisite ranges of an array of rules, each with the rules depending on it.
+ * Rules built by chaining dependent validators share a few ranges, so that going through the ranges
+ * instead of the individual prerequisites keeps the traversals linear in the number of rules.
+ *
+ * @author pacien
+ */
+final class PrerequisiteRanges {
+  private final int[] bounds;
+  private final int[][] dependents;
+  private final int[][] rangesOfRules;
+
+  PrerequisiteRanges(Rule<?, ?, ?>[] rules) {
+    var ids = new HashMap<Long, Integer>();
+    var boundList = new ArrayList<Integer>();
+    var dependentLists = new ArrayList<List<Integer>>();
+    rangesOfRules = new int[rules.length][];
+    for (var rule = 0; rule < rules.length; rule++) {
+      var prerequisites = rules[rule].getPrerequisites();
+      var ranges = new int[prerequisites.length / 2];
+      for (var i = 0; i < prerequisites.length; i += 2) {
+        var key = (long) prerequisites[i] << 32 | prerequisites[i + 1];
+        var id = ids.computeIfAbsent(key, k -> ids.size());
+        if (id == dependentLists.size()) {
+          boundList.add(prerequisites[i]);
+          boundList.add(prerequisites[i + 1]);
+          dependentLists.add(new ArrayList<>());
+        }
+
+        dependentLists.get(id).add(rule);
+        ranges[i / 2] = id;
+      }
+      rangesOfRules[rule] = ranges;
+    }
+
+    bounds = boundList.stream().mapToInt(Integer::intValue).toArray();
+    dependents = dependentLists.stream().map(list -> list.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+  }
+
+  /**
+   * @return the number of distinct ranges.
+   */
+  int size() {
+    return dependents.length;
+  }
+
+  /**
+   * @return the number of rules in a range.
+   */
+  int length(int range) {
+    return bounds[2 * range + 1] - bounds[2 * range];
+  }
+
+  /**
+   * @return whether a range includes a rule.
+   */
+  boolean contains(int range, int rule) {
+    return bounds[2 * range] <= rule && rule < bounds[2 * range + 1];
+  }
+
+  /**
+   * @return the rules depending on a range, in increasing order, which must not be modified.
+   */
+  int[] dependents(int range) {
+    return dependents[range];
+  }
+
+  /**
+   * @return the ranges a rule depends on, which must not be modified.
+   */
+  int[] rangesOf(int rule) {
+    return rangesOfRules[rule];
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A single validation rule, checking a field of a subject.
+ * A rule may depend on prerequisite rules, designated by ranges of indices in the enclosing rule array,
+ * in which case it is skipped for the subjects failing any of them.
+ * The ranges are stored as consecutive pairs of inclusive start and exclusive end indices, in increasing order,
+ * so that a rule depending on all the preceding ones holds a single range.
+ * A rule also records the outermost field getter it reads, or {@code null} if it reads the whole subject,
+ * so that it can be re-evaluated only when that field changes.
+ *
+ * @param <S> the subject type.
+ * @param <F> the field type.
+ * @param <E> the error type.
+ * @author pacien
+ */
+@Value class Rule<S, F, E> {
+  static final int[] NO_PREREQUISITES = new int[0];
+
+  @NonNull Function<? super S, ? extends F> mapper;
+  @NonNull Function<? super F, ? extends List<? extends E>> validator;
+  @NonNull int[] prerequisites;
+  Function<? super S, ?> field;
+
+  /**
+   * @param mapper        the getter mapping the subject to the checked field.
+   * @param validator     the validating function applied to the field.
+   * @param prerequisites the ranges of prerequisite rules.
+   * @param field         the getter identifying the field read by the rule, or {@code null} if it reads the whole subject.
+   */
+  Rule(@NonNull Function<? super S, ? extends F> mapper,
+       @NonNull Function<? super F, ? extends List<? extends E>> validator,
+       @NonNull int[] prerequisites,
+       Function<? super S, ?> field) {
+    this.mapper = mapper;
+    this.validator = validator;
+    this.prerequisites = prerequisites;
+    this.field = field;
+  }
+
+  /**
+   * @param subject the subject to validate.
+   * @return the potentially empty list of errors reported for the subject.
+   */
+  List<? extends E> apply(S subject) {
+    return validator.apply(mapper.apply(subject));
+  }
+
+  /**
+   * @param subject   the subject to validate.
+   * @param maxErrors the number of errors after which the rule may stop checking the field, if it supports it.
+   * @return the potentially empty list of errors reported for the subject.
+   * @see BudgetedValidator
+   */
+  @SuppressWarnings("unchecked")
+  List<? extends E> apply(S subject, int maxErrors) {
+    if (!(validator instanceof BudgetedValidator)) return apply(subject);
+
+    //noinspection unchecked
+    return ((BudgetedValidator<? super F, ? extends E>) validator).apply(mapper.apply(subject), maxErrors);
+  }
+
+  /**
+   * @param outer a getter mapping a parent subject to the subject of this rule.
+   * @return a rule checking the same field of the mapped parent subject, identified by the outer getter.
+   */
+  <T> Rule<T, F, E> compose(@NonNull Function<? super T, ? extends S> outer) {
+    return new Rule<>(mapper.compose(outer), validator, prerequisites, outer);
+  }
+
+  /**
+   * @param count the number of rules to depend on.
+   * @return the prerequisite ranges designating the first rules of an array.
+   */
+  static int[] firstRules(int count) {
+    return count == 0 ? NO_PREREQUISITES : new int[] {0, count};
+  }
+
+  /**
+   * @param offset              the index of the first rule of the enclosing array in a larger one.
+   * @param extraPrerequisites  the ranges of additional prerequisite rules in the larger array, all preceding the offset.
+   * @return a rule with its prerequisites relocated into the larger array and extended with the additional ones.
+   */
+  Rule<S, F, E> relocate(int offset, @NonNull int[] extraPrerequisites) {
+    if (prerequisites.length == 0 && offset == 0 && extraPrerequisites.length == 0) return this;
+    if (prerequisites.length == 0) return new Rule<>(mapper, validator, extraPrerequisites, field);
+
+    var relocated = Arrays.copyOf(extraPrerequisites, extraPrerequisites.length + prerequisites.length);
+    var length = extraPrerequisites.length;
+    for (var i = 0; i < prerequisites.length; i += 2) {
+      var start = prerequisites[i] + offset;
+      if (length > 0 && relocated[length - 1] == start) {
+        relocated[length - 1] = prerequisites[i + 1] + offset;
+      } else {
+        relocated[length++] = start;
+        relocated[length++] = prerequisites[i + 1] + offset;
+      }
+    }
+
+    return new Rule<>(mapper, validator, length == relocated.length ? relocated : Arrays.copyOf(relocated, length), field);
+  }
+
+  /**
+   * @param failed a bitmap of the rules which failed or were skipped, or {@code null} if none did.
+   * @return whether any prerequisite of this rule is marked in the supplied bitmap.
+   */
+  boolean isBlockedBy(long[] failed) {
+    if (failed == null) return false;
+    for (var i = 0; i < prerequisites.length; i += 2)
+      if (anySet(failed, prerequisites[i], prerequisites[i + 1])) return true;
+
+    return false;
+  }
+
+  private static boolean anySet(long[] bits, int start, int end) {
+    if (start >= end) return false;
+    var first = start >>> 6;
+    var last = (end - 1) >>> 6;
+    var firstMask = -1L << start;
+    var lastMask = -1L >>> -end;
+    if (first == last) return (bits[first] & firstMask & lastMask) != 0;
+    if ((bits[first] & firstMask) != 0 || (bits[last] & lastMask) != 0) return true;
+    for (var word = first + 1; word < last; word++)
+      if (bits[word] != 0) return true;
+
+    return false;
+  }
+}
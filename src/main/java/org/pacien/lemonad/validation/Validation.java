@@ -20,10 +20,10 @@ package org.pacien.lemonad.validation;
 
 import org.pacien.lemonad.attempt.Attempt;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -36,6 +36,7 @@ import static org.pacien.lemonad.attempt.Attempt.success;
 
 /**
  * Wraps the result of the validation of a subject.
+ * Two {@link Validation}s are equal if they have equal subjects and equal lists of errors, whatever their implementation.
  *
  * @param <S> the subject type,
  * @param <E> the error type.
@@ -144,6 +145,22 @@ public interface Validation<S, E> {
     return merge(validator.compose(mapper));
   }
 
+  /**
+   * Validates each element of a collection field, lazily iterating over it and without retaining the element {@link Validation}s.
+   *
+   * @param mapper           the field getter mapping the validation subject to the elements to validate.
+   * @param elementValidator an element validating function returning a {@link Validation}.
+   * @param errorAdapter     a function adapting each element error given the index of its element, such as {@link ElementError#of}.
+   * @return an updated {@link Validation}.
+   */
+  default <F, EE> Validation<S, E> validateEach(
+    @NonNull Function<? super S, ? extends Iterable<? extends F>> mapper,
+    @NonNull Function<? super F, ? extends Validation<?, ? extends EE>> elementValidator,
+    @NonNull BiFunction<Integer, ? super EE, ? extends E> errorAdapter
+  ) {
+    return merge(ElementErrors.collect(mapper.apply(getSubject()).iterator(), elementValidator, errorAdapter, Integer.MAX_VALUE));
+  }
+
   /**
    * @param validation another validation to merge into the current one.
    * @return an updated {@link Validation}.
@@ -160,16 +177,14 @@ public interface Validation<S, E> {
    * @return an updated {@link Validation}.
    */
   default Validation<S, E> merge(@NonNull Collection<? extends E> errors) {
-    var combinedErrors = new ArrayList<E>(getErrors().size() + errors.size());
-    combinedErrors.addAll(getErrors());
-    combinedErrors.addAll(errors);
-    return new ValidationContainer<>(getSubject(), combinedErrors);
+    return new ValidationContainer<>(getSubject(), ErrorList.<E>copyOf(getErrors()).appendAll(errors));
   }
 
   /**
    * @param mapper a function transforming a {@link Validation}.
    * @return the transformed {@link Validation}.
    */
+  @SuppressWarnings("unchecked")
   default <SS, EE> Validation<SS, EE> flatMap(
     @NonNull Function<? super Validation<? super S, ? super E>, ? extends Validation<? extends SS, ? extends EE>> mapper
   ) {
@@ -189,7 +204,9 @@ public interface Validation<S, E> {
    * @param errors  some optional validation errors.
    * @return a {@link Validation}.
    */
-  @SafeVarargs static <S, E> Validation<S, E> of(S subject, E... errors) {
+  @SafeVarargs
+  @SuppressWarnings("varargs")
+  static <S, E> Validation<S, E> of(S subject, E... errors) {
     return Validation.of(subject, List.of(errors));
   }
 
@@ -199,6 +216,25 @@ public interface Validation<S, E> {
    * @return a {@link Validation}.
    */
   static <S, E> Validation<S, E> of(S subject, @NonNull List<E> errors) {
-    return new ValidationContainer<>(subject, errors);
+    return new ValidationContainer<>(subject, ErrorList.copyOf(errors));
+  }
+
+  /**
+   * @param subject the subject of the validation.
+   * @return a {@link Validation} skipping all the further checks once an error has been reported.
+   */
+  static <S, E> Validation<S, E> ofFailFast(S subject) {
+    return new BoundedValidation<>(subject, ErrorList.empty(), 1, null, false);
+  }
+
+  /**
+   * @param subject          the subject of the validation.
+   * @param maxErrors        the maximum number of errors to report before skipping all the further checks.
+   * @param truncationMarker the error appended once some checks have been skipped or some errors discarded.
+   * @return a {@link Validation} with a bounded error budget.
+   */
+  static <S, E> Validation<S, E> ofBounded(S subject, int maxErrors, @NonNull E truncationMarker) {
+    if (maxErrors < 1) throw new IllegalArgumentException("The error budget must be positive.");
+    return new BoundedValidation<>(subject, ErrorList.empty(), maxErrors, truncationMarker, false);
   }
 }
@@ -0,0 +1,72 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import lombok.NonNull;
+
+/**
+ * {@link Collector}s gathering many {@link Validation}s.
+ * All the collectors are suitable for parallel streams, and preserve the encounter order of the errors.
+ *
+ * @author pacien
+ */
+public final class ValidationCollectors {
+  private ValidationCollectors() {
+  }
+
+  /**
+   * @param subject the subject of the resulting {@link Validation}.
+   * @return a {@link Collector} merging the errors of {@link Validation}s into a single {@link Validation}.
+   */
+  public static <S, E> Collector<Validation<?, ? extends E>, ?, Validation<S, E>> merging(S subject) {
+    return merging(subject, Function.identity());
+  }
+
+  /**
+   * @param subject   the subject of the resulting {@link Validation}.
+   * @param validator a function validating each element.
+   * @return a {@link Collector} validating elements and merging their errors into a single {@link Validation}.
+   */
+  public static <T, S, E> Collector<T, ?, Validation<S, E>> merging(
+    S subject,
+    @NonNull Function<? super T, ? extends Validation<?, ? extends E>> validator
+  ) {
+    return Collector.of(
+      Accumulator<E>::new,
+      (Accumulator<E> accumulator, T element) -> accumulator.add(validator.apply(element)),
+      Accumulator::combine,
+      accumulator -> new ValidationContainer<>(subject, accumulator.errors));
+  }
+
+  private static final class Accumulator<E> {
+    private ErrorList<E> errors = ErrorList.empty();
+
+    void add(Validation<?, ? extends E> validation) {
+      if (validation.isInvalid()) errors = errors.appendAll(validation.getErrors());
+    }
+
+    Accumulator<E> combine(Accumulator<E> other) {
+      if (!other.errors.isEmpty()) errors = errors.appendAll(other.errors);
+      return this;
+    }
+  }
+}
@@ -19,18 +19,17 @@
 package org.pacien.lemonad.validation;
 
 import java.util.List;
+import java.util.Objects;
 
 import lombok.NonNull;
 import lombok.Value;
 
-import static java.util.Collections.unmodifiableList;
-
 /**
  * @author pacien
  */
 @Value class ValidationContainer<S, E> implements Validation<S, E> {
   S subject;
-  @NonNull List<E> errors;
+  @NonNull ErrorList<E> errors;
 
   @Override public boolean isValid() {
     return errors.isEmpty();
@@ -41,6 +40,31 @@ import static java.util.Collections.unmodifiableList;
   }
 
   @Override public List<E> getErrors() {
-    return unmodifiableList(errors);
+    return errors;
+  }
+
+  @Override public boolean equals(Object other) {
+    return equals(this, other);
+  }
+
+  @Override public int hashCode() {
+    return hashCode(this);
+  }
+
+  /**
+   * @return whether the given object is a {@link Validation} with the same subject and errors as the given one.
+   */
+  static boolean equals(Validation<?, ?> validation, Object other) {
+    if (other == validation) return true;
+    if (!(other instanceof Validation)) return false;
+    var that = (Validation<?, ?>) other;
+    return Objects.equals(validation.getSubject(), that.getSubject()) && validation.getErrors().equals(that.getErrors());
+  }
+
+  /**
+   * @return the hash code of the subject and errors of the given {@link Validation}.
+   */
+  static int hashCode(Validation<?, ?> validation) {
+    return 31 * Objects.hashCode(validation.getSubject()) + validation.getErrors().hashCode();
   }
 }
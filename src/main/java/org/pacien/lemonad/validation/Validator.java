@@ -0,0 +1,234 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import lombok.NonNull;
+
+/**
+ * A reusable set of validation rules, built once and applied to many subjects.
+ * The rules are flattened into an array upon construction, so that applying them composes no function
+ * and allocates nothing but the resulting {@link Validation} when the subject is valid.
+ *
+ * @param <S> the subject type,
+ * @param <E> the error type.
+ * @author pacien
+ */
+public interface Validator<S, E> extends Function<S, Validation<S, E>> {
+  /**
+   * @param subject the subject to validate.
+   * @return the {@link Validation} of the subject against all the rules.
+   */
+  @Override Validation<S, E> apply(S subject);
+
+  /**
+   * @param subject          the subject to validate.
+   * @param maxErrors        the maximum number of errors to report before skipping the remaining rules.
+   * @param truncationMarker the error appended if some rules have been skipped or some errors discarded.
+   * @return the {@link Validation} of the subject, holding at most {@code maxErrors} errors followed by the marker.
+   */
+  Validation<S, E> apply(S subject, int maxErrors, @NonNull E truncationMarker);
+
+  /**
+   * @param subject the subject to validate.
+   * @return the {@link Validation} of the subject, holding only the first reported error if any.
+   */
+  Validation<S, E> applyFailFast(S subject);
+
+  /**
+   * @param subject the subject to validate.
+   * @return whether the subject passes all the rules, evaluated until the first failure without collecting any error.
+   */
+  boolean isValid(S subject);
+
+  /**
+   * @param subject the subject to validate.
+   * @return the {@link IncrementalValidation} of the subject against all the rules,
+   * retaining the outcome of each rule for later revalidations.
+   */
+  IncrementalValidation<S, E> applyIncremental(S subject);
+
+  /**
+   * Revalidates a modified subject by re-evaluating only the rules reading any of the changed fields,
+   * the rules reading the whole subject, and the rules whose prerequisites changed outcome,
+   * reusing the outcome of the other rules from the previous {@link IncrementalValidation}.
+   * The fields are identified by the very getter instances supplied when building this {@link Validator}.
+   *
+   * @param previous      a previous {@link IncrementalValidation} produced by this {@link Validator}.
+   * @param subject       the modified subject to validate.
+   * @param changedFields the getters of the fields which changed since the previous validation.
+   * @return the updated {@link IncrementalValidation} of the subject, holding the same errors as a full validation.
+   * @throws IllegalArgumentException if the previous validation has not been produced by this {@link Validator},
+   *                                  or if a changed field getter has not been supplied to this {@link Validator}.
+   */
+  IncrementalValidation<S, E> revalidate(
+    @NonNull IncrementalValidation<S, E> previous,
+    S subject,
+    @NonNull Collection<? extends Function<? super S, ?>> changedFields
+  );
+
+  /**
+   * @param subjects the subjects to validate in parallel, in the common {@link ForkJoinPool}.
+   * @return the {@link BulkValidation} of the subjects, listed in their encounter order.
+   */
+  default BulkValidation<S, E> applyAll(@NonNull Collection<? extends S> subjects) {
+    return applyAll(subjects.spliterator());
+  }
+
+  /**
+   * @param subjects the subjects to validate in parallel, in the common {@link ForkJoinPool}.
+   * @return the {@link BulkValidation} of the subjects, listed in their encounter order.
+   */
+  default BulkValidation<S, E> applyAll(@NonNull Stream<? extends S> subjects) {
+    return applyAll(subjects.spliterator());
+  }
+
+  /**
+   * @param subjects the subjects to validate in parallel, in the common {@link ForkJoinPool}.
+   * @return the {@link BulkValidation} of the subjects, listed in their encounter order.
+   */
+  default BulkValidation<S, E> applyAll(@NonNull Spliterator<? extends S> subjects) {
+    return applyAll(subjects, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param subjects the subjects to validate in parallel, gathered first if their exact count is not known upfront.
+   * @param pool     the pool in which to run the validation tasks.
+   * @return the {@link BulkValidation} of the subjects, listed in their encounter order.
+   */
+  default BulkValidation<S, E> applyAll(@NonNull Spliterator<? extends S> subjects, @NonNull ForkJoinPool pool) {
+    return BulkValidationTask.run(this, subjects, pool);
+  }
+
+  /**
+   * @param predicate the validation predicate testing the validity of a subject.
+   * @param error     the error to return if the subject does not pass the test.
+   * @return an extended {@link Validator}.
+   */
+  Validator<S, E> validate(@NonNull Predicate<? super S> predicate, @NonNull E error);
+
+  /**
+   * @param mapper    the field getter mapping the validation subject.
+   * @param predicate the validation predicate testing the validity of a subject.
+   * @param error     the error to return if the subject does not pass the test.
+   * @return an extended {@link Validator}.
+   */
+  <F> Validator<S, E> validate(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Predicate<? super F> predicate,
+    E error
+  );
+
+  /**
+   * @param validator the validating function to use, returning a potentially empty list of errors.
+   * @return an extended {@link Validator}.
+   */
+  Validator<S, E> validate(@NonNull Function<? super S, ? extends List<? extends E>> validator);
+
+  /**
+   * @param mapper    the field getter mapping the validation subject.
+   * @param validator the validating function to use, returning a potentially empty list of errors.
+   * @return an extended {@link Validator}.
+   */
+  <F> Validator<S, E> validate(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Function<? super F, ? extends List<? extends E>> validator
+  );
+
+  /**
+   * @param validator a subject validating function returning a {@link Validation}.
+   * @return an extended {@link Validator}.
+   */
+  Validator<S, E> merge(@NonNull Function<? super S, ? extends Validation<?, ? extends E>> validator);
+
+  /**
+   * @param mapper    the field getter mapping the validation subject.
+   * @param validator a subject validating function returning a {@link Validation}.
+   * @return an extended {@link Validator}.
+   */
+  <F> Validator<S, E> merge(
+    @NonNull Function<? super S, ? extends F> mapper,
+    @NonNull Function<? super F, ? extends Validation<?, ? extends E>> validator
+  );
+
+  /**
+   * @param validator another {@link Validator} whose rules are appended to the current ones.
+   * @return an extended {@link Validator}.
+   */
+  Validator<S, E> merge(@NonNull Validator<? super S, ? extends E> validator);
+
+  /**
+   * @param mapper    the field getter mapping the validation subject.
+   * @param validator another {@link Validator} whose rules are appended to the current ones, applied to the mapped field.
+   * @return an extended {@link Validator}.
+   */
+  <F> Validator<S, E> merge(@NonNull Function<? super S, ? extends F> mapper, @NonNull Validator<? super F, ? extends E> validator);
+
+  /**
+   * @param dependent a {@link Validator} whose rules are appended to the current ones,
+   *                  but skipped for the subjects failing any of the current rules.
+   * @return an extended {@link Validator}.
+   */
+  Validator<S, E> whenValid(@NonNull Validator<? super S, ? extends E> dependent);
+
+  /**
+   * @param mapper    the field getter mapping the validation subject.
+   * @param dependent a {@link Validator} whose rules are appended to the current ones, applied to the mapped field,
+   *                  but skipped for the subjects failing any of the current rules.
+   * @return an extended {@link Validator}.
+   */
+  <F> Validator<S, E> whenValid(@NonNull Function<? super S, ? extends F> mapper, @NonNull Validator<? super F, ? extends E> dependent);
+
+  /**
+   * Opts into the adaptive ordering of the rules for {@link #isValid(Object)} and {@link #applyFailFast(Object)},
+   * which then evaluate the cheapest and most selective rules first according to sampled measurements,
+   * while still honouring the prerequisites and reporting the first error in declaration order.
+   * The other evaluation modes keep evaluating all the rules in declaration order.
+   *
+   * @return an adaptive {@link Validator} with the same rules.
+   */
+  Validator<S, E> adaptive();
+
+  /**
+   * @param mapper           the field getter mapping the validation subject to the elements to validate.
+   * @param elementValidator an element validating function returning a {@link Validation}, such as another {@link Validator}.
+   * @param errorAdapter     a function adapting each element error given the index of its element, such as {@link ElementError#of}.
+   * @return an extended {@link Validator}, lazily iterating over the elements of the field.
+   */
+  <F, EE> Validator<S, E> validateEach(
+    @NonNull Function<? super S, ? extends Iterable<? extends F>> mapper,
+    @NonNull Function<? super F, ? extends Validation<?, ? extends EE>> elementValidator,
+    @NonNull BiFunction<Integer, ? super EE, ? extends E> errorAdapter
+  );
+
+  /**
+   * @return a {@link Validator} without any rule.
+   */
+  static <S, E> Validator<S, E> of() {
+    return CompiledValidator.empty();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author pacien
+ */
+class AsyncAttemptTest {
+  @Test void testAttempt() {
+    assertEquals(Attempt.success("result"), AsyncAttempt.attempt(() -> "result").join());
+
+    var exception = new IOException();
+    assertEquals(Attempt.failure(exception), AsyncAttempt.attempt(() -> {
+      throw exception;
+    }).join());
+  }
+
+  @Test void testTransformationFlow() {
+    var result = AsyncAttempt
+      .<Integer, String>of(Attempt.success(1))
+      .mapResult(res -> res + 1)
+      .transformResult(res -> Attempt.<Integer, String>failure("fail" + res))
+      .ifSuccess(__ -> fail())
+      .mapError(String::length)
+      .recoverErrorAsync(err -> AsyncAttempt.<Integer, RuntimeException>attempt(() -> err))
+      .transformResultAsync(res -> AsyncAttempt.of(Attempt.success(res * 2)))
+      .transform(res -> Attempt.success(res.toString()), err -> Attempt.failure(false))
+      .ifFailure(__ -> fail())
+      .join();
+
+    assertEquals(Attempt.success("10"), result);
+  }
+
+  @Test void testTimeout() {
+    var pending = AsyncAttempt.<String, String>fromAttemptStage(new CompletableFuture<>(), AsyncAttempt.defaultExecutor());
+    assertEquals(Attempt.failure("timeout"), pending.withTimeout(Duration.ofMillis(10), () -> "timeout").join());
+
+    var completed = AsyncAttempt.<String, String>of(Attempt.success("result"));
+    assertEquals(Attempt.success("result"), completed.withTimeout(Duration.ofMillis(10), () -> "timeout").join());
+
+    var failed = AsyncAttempt.<String, String>fromAttemptStage(CompletableFuture.failedFuture(new IllegalStateException()), Runnable::run);
+    var thrown = assertThrows(CompletionException.class, () -> failed.withTimeout(Duration.ofSeconds(1), () -> "timeout").join());
+    assertTrue(thrown.getCause() instanceof IllegalStateException);
+  }
+
+  @Test void testTimeoutSharedStage() {
+    var release = new CountDownLatch(1);
+    var shared = AsyncAttempt.<String, Exception>attempt(() -> {
+      release.await();
+      return "result";
+    });
+
+    var timed = shared.withTimeout(Duration.ofMillis(10), TimeoutException::new);
+    var mapped = shared.flatMap(attempt -> attempt.mapResult(String::length));
+    assertTrue(timed.join().getError() instanceof TimeoutException);
+
+    release.countDown();
+    assertEquals(Attempt.success(6), mapped.join());
+    assertEquals(Attempt.success("result"), shared.withTimeout(Duration.ofSeconds(10), TimeoutException::new).join());
+  }
+
+  @Test void testStageConversion() {
+    var failed = CompletableFuture.<String>failedFuture(new IllegalStateException());
+    var attempt = AsyncAttempt.fromStage(failed, Throwable::getClass, Runnable::run).join();
+    assertEquals(IllegalStateException.class, attempt.getError());
+
+    var stage = AsyncAttempt.of(Attempt.success("result")).toCompletionStage();
+    assertTrue(stage.toCompletableFuture().join().isSuccess());
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class AttemptBatchTest {
+  private static final List<String> INPUTS = List.of("1", "x", "3", "y", "5");
+
+  private static AttemptBatch<Integer, NumberFormatException> parse() {
+    return AttemptBatch.<String, Integer, NumberFormatException>attempt(INPUTS, Integer::parseInt);
+  }
+
+  @Test void testAttempt() {
+    var batch = parse();
+    assertEquals(5, batch.size());
+    assertEquals(3, batch.getSuccessCount());
+    assertEquals(2, batch.getFailureCount());
+    assertTrue(batch.isSuccess(0));
+    assertTrue(batch.isFailure(1));
+    assertEquals(3, batch.get(2).getResult());
+    assertTrue(batch.get(3).getError().getMessage().contains("y"));
+    assertEquals(List.of(1, 3, 5), batch.getSuccesses());
+    assertArrayEquals(new int[] {1, 3}, batch.getFailureIndices());
+    assertThrows(IndexOutOfBoundsException.class, () -> batch.get(5));
+  }
+
+  @Test void testOf() {
+    var batch = AttemptBatch.of(List.of(Attempt.<Integer, String>success(1), Attempt.<Integer, String>failure("a")));
+    assertEquals(List.of(1), batch.getSuccesses());
+    assertEquals(List.of("a"), batch.getFailures());
+    assertEquals(List.of(Attempt.success(1), Attempt.failure("a")), batch.toAttempts());
+  }
+
+  @Test void testMapResultAndError() {
+    var batch = parse()
+      .mapResult(result -> result * 10)
+      .mapError(Throwable::getMessage);
+    assertEquals(List.of(10, 30, 50), batch.getSuccesses());
+    assertEquals(2, batch.getFailures().size());
+    assertTrue(batch.getFailures().get(1).contains("y"));
+  }
+
+  @Test void testTransformResult() {
+    var batch = parse()
+      .mapError(Throwable::getMessage)
+      .transformResult(result -> result > 2 ? Attempt.success(result) : Attempt.failure("small"));
+    assertEquals(List.of(3, 5), batch.getSuccesses());
+    assertArrayEquals(new int[] {0, 1, 3}, batch.getFailureIndices());
+    assertEquals("small", batch.get(0).getError());
+  }
+
+  @Test void testRecoverError() {
+    var batch = parse()
+      .mapError(Throwable::getMessage)
+      .recoverError(error -> error.contains("x") ? Attempt.success(0) : Attempt.failure(error.length()));
+    assertEquals(List.of(1, 0, 3, 5), batch.getSuccesses());
+    assertArrayEquals(new int[] {3}, batch.getFailureIndices());
+    assertFalse(batch.isFailure(1));
+  }
+
+  @Test void testIfSuccessAndFailure() {
+    var results = new ArrayList<Integer>();
+    var indices = new ArrayList<Integer>();
+    var errors = new ArrayList<String>();
+    parse()
+      .mapError(Throwable::getMessage)
+      .ifSuccess(results::add)
+      .ifSuccessIndexed((result, index) -> indices.add(index))
+      .ifFailure(errors::add);
+    assertEquals(List.of(1, 3, 5), results);
+    assertEquals(List.of(0, 2, 4), indices);
+    assertEquals(2, errors.size());
+  }
+
+  @Test void testLargeBatchPartition() {
+    var inputs = IntStream.range(0, 100_000).boxed().collect(toList());
+    var partitioned = AttemptBatch.<Integer, Integer, IllegalArgumentException>attempt(inputs, input -> {
+      if (input % 3 == 0) throw new IllegalArgumentException();
+      return input;
+    }).partition();
+    assertEquals(66_666, partitioned.getResults().size());
+    assertEquals(33_334, partitioned.getErrors().size());
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class AttemptCacheTest {
+  @Test void testMemoization() {
+    var loads = new AtomicInteger();
+    var cache = AttemptCache.<Integer, Integer, String>of(
+      key -> {
+        loads.incrementAndGet();
+        return Attempt.success(key * 2);
+      },
+      10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    assertEquals(4, cache.apply(2).getResult());
+    assertEquals(4, cache.apply(2).getResult());
+    assertEquals(6, cache.apply(3).getResult());
+    assertEquals(2, loads.get());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(1. / 3, cache.getHitRate(), 1e-9);
+  }
+
+  @Test void testSeparateTimeToLive() {
+    var clock = new AtomicLong();
+    var loads = new AtomicInteger();
+    var cache = AttemptCache.<Integer, Integer, String>of(
+      key -> {
+        loads.incrementAndGet();
+        return key < 0 ? Attempt.failure("negative") : Attempt.success(key);
+      },
+      10, Duration.ofSeconds(10), Duration.ofSeconds(1), clock::get);
+
+    cache.apply(1);
+    cache.apply(-1);
+    assertEquals(2, loads.get());
+
+    clock.set(Duration.ofSeconds(2).toNanos());
+    cache.apply(1);
+    cache.apply(-1);
+    assertEquals(3, loads.get());
+
+    clock.set(Duration.ofSeconds(20).toNanos());
+    cache.apply(1);
+    assertEquals(4, loads.get());
+  }
+
+  @Test void testZeroTimeToLiveDisablesCaching() {
+    var loads = new AtomicInteger();
+    var cache = AttemptCache.<Integer, Integer, String>of(
+      key -> {
+        loads.incrementAndGet();
+        return Attempt.failure("failed");
+      },
+      10, Duration.ofMinutes(1), Duration.ZERO);
+
+    cache.apply(1);
+    cache.apply(1);
+    assertEquals(2, loads.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test void testSizeBound() {
+    var cache = AttemptCache.<Integer, Integer, String>of(Attempt::success, 16, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    for (var i = 0; i < 1000; i++) cache.apply(i);
+    assertTrue(cache.size() <= 16);
+    assertEquals(1000 - cache.size(), cache.getEvictionCount());
+  }
+
+  @Test void testFrequentKeysSurviveScan() {
+    var loads = new AtomicInteger();
+    var cache = AttemptCache.<Integer, Integer, String>of(
+      key -> {
+        loads.incrementAndGet();
+        return Attempt.success(key);
+      },
+      8, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    for (var round = 0; round < 5; round++)
+      for (var hot = 0; hot < 4; hot++) cache.apply(hot);
+
+    for (var cold = 100; cold < 150; cold++) cache.apply(cold);
+
+    loads.set(0);
+    for (var hot = 0; hot < 4; hot++) cache.apply(hot);
+    assertEquals(0, loads.get());
+  }
+
+  @Test void testLoaderExceptionIsNotCached() {
+    var loads = new AtomicInteger();
+    var cache = AttemptCache.<Integer, Integer, String>of(
+      key -> {
+        if (loads.incrementAndGet() == 1) throw new IllegalStateException();
+        return Attempt.success(key);
+      },
+      10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    assertThrows(IllegalStateException.class, () -> cache.apply(1));
+    assertEquals(1, cache.apply(1).getResult());
+    assertEquals(1, cache.size());
+  }
+
+  @Test void testSingleFlightLoading() throws Exception {
+    var loads = new AtomicInteger();
+    var release = new CountDownLatch(1);
+    var cache = AttemptCache.<Integer, Integer, String>of(
+      key -> {
+        loads.incrementAndGet();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return Attempt.success(key);
+      },
+      10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var lookups = new ArrayList<Future<Attempt<Integer, String>>>();
+      for (var i = 0; i < 8; i++) lookups.add(executor.submit(() -> cache.apply(7)));
+      Thread.sleep(50);
+      release.countDown();
+      for (var lookup : lookups) assertEquals(7, lookup.get(5, TimeUnit.SECONDS).getResult());
+      assertEquals(1, loads.get());
+      assertEquals(1, cache.getMissCount());
+      assertEquals(7, cache.getJoinCount() + cache.getHitCount());
+      assertTrue(cache.getJoinCount() > 0);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test void testNullAttemptIsNotCached() {
+    var loads = new AtomicInteger();
+    var cache = AttemptCache.<Integer, Integer, String>of(
+      key -> loads.incrementAndGet() == 1 ? null : Attempt.success(key),
+      10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    assertThrows(NullPointerException.class, () -> cache.apply(1));
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.apply(1).getResult());
+  }
+}
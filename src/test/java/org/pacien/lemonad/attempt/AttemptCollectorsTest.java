@@ -0,0 +1,81 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class AttemptCollectorsTest {
+  @Test void testSequenceSuccess() {
+    var sequenced = Stream.of(Attempt.<Integer, String>success(1), Attempt.<Integer, String>success(2))
+      .collect(AttemptCollectors.<Integer, String>sequence());
+    assertEquals(List.of(1, 2), sequenced.getResult());
+  }
+
+  @Test void testSequenceFirstFailureInParallel() {
+    var sequenced = IntStream.range(0, 10_000).boxed().parallel()
+      .map(i -> i % 1000 == 999 ? Attempt.<Integer, Integer>failure(i) : Attempt.<Integer, Integer>success(i))
+      .collect(AttemptCollectors.<Integer, Integer>sequence());
+    assertEquals(999, sequenced.getError());
+  }
+
+  @Test void testSequenceStreamShortCircuits() {
+    var pulled = new AtomicInteger();
+    var sequenced = AttemptCollectors.sequence(IntStream.range(0, 100).boxed()
+      .peek(__ -> pulled.incrementAndGet())
+      .map(i -> i == 3 ? Attempt.<Integer, String>failure("three") : Attempt.<Integer, String>success(i)));
+    assertEquals("three", sequenced.getError());
+    assertEquals(4, pulled.get());
+  }
+
+  @Test void testTraverse() {
+    var mapped = new AtomicInteger();
+    var traversed = Stream.of("1", "2", "x", "4")
+      .collect(AttemptCollectors.<String, Integer, String>traverse(s -> {
+        mapped.incrementAndGet();
+        return s.chars().allMatch(Character::isDigit) ? Attempt.success(Integer.parseInt(s)) : Attempt.failure(s);
+      }));
+    assertEquals("x", traversed.getError());
+    assertEquals(3, mapped.get());
+    assertEquals(List.of(1, 2), Stream.of("1", "2")
+      .collect(AttemptCollectors.<String, Integer, String>traverse(s -> Attempt.success(Integer.parseInt(s))))
+      .getResult());
+  }
+
+  @Test void testPartitioning() {
+    var partitioned = IntStream.range(0, 1000).boxed().parallel()
+      .map(i -> i % 2 == 0 ? Attempt.<Integer, Integer>success(i) : Attempt.<Integer, Integer>failure(-i))
+      .collect(AttemptCollectors.<Integer, Integer>partitioning(500));
+    assertEquals(500, partitioned.getResults().size());
+    assertEquals(500, partitioned.getErrors().size());
+    assertEquals(998, partitioned.getResults().get(499));
+    assertEquals(-1, partitioned.getErrors().get(0));
+    assertTrue(partitioned.getErrors().stream().allMatch(error -> error < 0));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author pacien
+ */
+class AttemptPipelineTest {
+  private final AttemptPipeline<Integer, String, Long> pipeline = AttemptPipeline
+    .<Integer, Long>of()
+    .transformResult(res -> res >= 0 ? Attempt.success(res) : Attempt.failure((long) res))
+    .mapResult(res -> res * 2)
+    .transformResult(res -> res < 100 ? Attempt.<Integer, String>success(res) : Attempt.failure("too big"), err -> (long) err.length())
+    .recoverError(err -> err == -3L ? Attempt.success("three") : Attempt.failure(err), String::length)
+    .mapError(err -> err * 10)
+    .mapResult(Object::toString)
+    .transform(res -> Attempt.success(res + "!"), err -> Attempt.failure(err + 1));
+
+  private static Attempt<String, Long> unfused(Attempt<Integer, Long> input) {
+    return input
+      .transformResult(res -> res >= 0 ? Attempt.success(res) : Attempt.failure((long) res))
+      .mapResult(res -> res * 2)
+      .transformResult(res -> res < 100 ? Attempt.<Integer, String>success(res) : Attempt.failure("too big"), err -> (long) err.length())
+      .recoverError(err -> err == -3L ? Attempt.success("three") : Attempt.failure(err), String::length)
+      .mapError(err -> err * 10)
+      .mapResult(Object::toString)
+      .transform(res -> Attempt.success(res + "!"), err -> Attempt.failure(err + 1));
+  }
+
+  @Test void testEquivalence() {
+    for (var input : List.of(-5, -3, 0, 21, 60)) {
+      assertEquals(unfused(Attempt.success(input)), pipeline.apply(input));
+      assertEquals(unfused(Attempt.success(input)), pipeline.applyTo(Attempt.success(input)));
+    }
+
+    assertEquals(unfused(Attempt.failure(7L)), pipeline.applyTo(Attempt.failure(7L)));
+  }
+
+  @Test void testIdentity() {
+    assertEquals(Attempt.success("input"), AttemptPipeline.of().apply("input"));
+  }
+
+  @Test void testConsumers() {
+    var outcomes = new ArrayList<Object>();
+    pipeline.ifSuccess(21, outcomes::add);
+    pipeline.ifSuccess(-5, outcomes::add);
+    pipeline.ifFailure(-5, outcomes::add);
+    pipeline.ifFailure(21, outcomes::add);
+    pipeline.accept(60, __ -> fail(), outcomes::add);
+    assertEquals(List.of("42!", -49L, 71L), outcomes);
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class AttemptProcessorTest {
+  private static Attempt<Integer, String> parse(String input) {
+    return input.chars().allMatch(Character::isDigit) ? Attempt.success(Integer.parseInt(input)) : Attempt.failure(input);
+  }
+
+  @Test void testRouting() {
+    var results = new RecordingSubscriber<Integer>(Long.MAX_VALUE);
+    var deadLetters = new RecordingSubscriber<String>(Long.MAX_VALUE);
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, deadLetters, 4);
+    processor.subscribe(results);
+    new ListPublisher<>(List.of("1", "a", "2", "b", "3")).subscribe(processor);
+
+    assertEquals(List.of(1, 2, 3), results.items);
+    assertEquals(List.of("a", "b"), deadLetters.items);
+    assertTrue(results.completed);
+    assertTrue(deadLetters.completed);
+  }
+
+  @Test void testBatchedRequests() {
+    var publisher = new ListPublisher<>(IntStream.range(0, 20).mapToObj(Integer::toString).collect(toList()));
+    var results = new RecordingSubscriber<Integer>(Long.MAX_VALUE);
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, new RecordingSubscriber<>(Long.MAX_VALUE), 8);
+    processor.subscribe(results);
+    publisher.subscribe(processor);
+
+    assertEquals(20, results.items.size());
+    assertEquals(8L, publisher.requests.get(0));
+    assertTrue(publisher.requests.stream().allMatch(request -> request >= 4));
+  }
+
+  @Test void testDemandOfDeadLetters() {
+    var publisher = new ListPublisher<>(IntStream.range(0, 100).mapToObj(i -> i % 2 == 0 ? "x" : "1").collect(toList()));
+    var results = new RecordingSubscriber<Integer>(Long.MAX_VALUE);
+    var deadLetters = new RecordingSubscriber<String>(1);
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, deadLetters, 4);
+    processor.subscribe(results);
+    publisher.subscribe(processor);
+
+    assertEquals(1, deadLetters.items.size());
+    assertTrue(publisher.index <= 8);
+    assertTrue(results.items.size() < 8);
+    assertFalse(results.completed);
+
+    deadLetters.subscription.request(Long.MAX_VALUE);
+    assertEquals(50, deadLetters.items.size());
+    assertEquals(50, results.items.size());
+    assertTrue(results.completed);
+    assertTrue(deadLetters.completed);
+  }
+
+  @Test void testLateSubscriber() {
+    var deadLetters = new RecordingSubscriber<String>(Long.MAX_VALUE);
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, deadLetters, 16);
+    new ListPublisher<>(List.of("1", "a", "2")).subscribe(processor);
+    assertEquals(List.of("a"), deadLetters.items);
+    assertTrue(deadLetters.completed);
+
+    var results = new RecordingSubscriber<Integer>(Long.MAX_VALUE);
+    processor.subscribe(results);
+    assertEquals(List.of(1, 2), results.items);
+    assertTrue(results.completed);
+
+    var rejected = new RecordingSubscriber<Integer>(Long.MAX_VALUE);
+    processor.subscribe(rejected);
+    assertTrue(rejected.error instanceof IllegalStateException);
+  }
+
+  @Test void testCancellation() {
+    var publisher = new ListPublisher<>(IntStream.range(0, 100).mapToObj(i -> i % 2 == 0 ? "x" : "1").collect(toList()));
+    var results = new RecordingSubscriber<Integer>(2);
+    var deadLetters = new RecordingSubscriber<String>(Long.MAX_VALUE);
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, deadLetters, 4);
+    deadLetters.subscription.cancel();
+    processor.subscribe(results);
+    publisher.subscribe(processor);
+    assertEquals(List.of(1, 1), results.items);
+    assertTrue(deadLetters.items.isEmpty());
+    assertFalse(publisher.cancelled);
+
+    results.subscription.cancel();
+    assertTrue(publisher.cancelled);
+  }
+
+  @Test void testTransformerException() {
+    var publisher = new ListPublisher<>(List.of("1", "boom", "2"));
+    var results = new RecordingSubscriber<Integer>(Long.MAX_VALUE);
+    var deadLetters = new RecordingSubscriber<String>(Long.MAX_VALUE);
+    var processor = AttemptProcessor.<String, Integer, String>of(input -> {
+      if (input.equals("boom")) throw new IllegalStateException();
+      return parse(input);
+    }, deadLetters, 4);
+    processor.subscribe(results);
+    publisher.subscribe(processor);
+
+    assertEquals(List.of(1), results.items);
+    assertTrue(publisher.cancelled);
+    assertTrue(results.error instanceof IllegalStateException);
+    assertTrue(deadLetters.error instanceof IllegalStateException);
+  }
+
+  @Test void testInvalidRequest() {
+    var results = new RecordingSubscriber<Integer>(0);
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, new RecordingSubscriber<>(Long.MAX_VALUE), 4);
+    processor.subscribe(results);
+    assertNull(results.error);
+    results.subscription.request(0);
+    assertTrue(results.error instanceof IllegalArgumentException);
+  }
+
+  @Test void testConcurrentPublisher() throws Exception {
+    var completion = new CountDownLatch(2);
+    var results = new RecordingSubscriber<Integer>(Long.MAX_VALUE, completion);
+    var deadLetters = new RecordingSubscriber<String>(Long.MAX_VALUE, completion);
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, deadLetters, 32);
+    processor.subscribe(results);
+
+    try (var publisher = new SubmissionPublisher<String>()) {
+      publisher.subscribe(processor);
+      for (var i = 0; i < 10_000; i++) publisher.submit(i % 10 == 0 ? "x" : Integer.toString(i));
+    }
+
+    assertTrue(completion.await(10, TimeUnit.SECONDS));
+    assertEquals(9_000, results.items.size());
+    assertEquals(1_000, deadLetters.items.size());
+  }
+
+  @Test void testNoSignalWithinOnSubscribe() {
+    var processor = AttemptProcessor.<String, Integer, String>of(AttemptProcessorTest::parse, new RecordingSubscriber<>(Long.MAX_VALUE), 4);
+    new ListPublisher<>(List.of("1", "2", "3")).subscribe(processor);
+
+    var items = new ArrayList<Integer>();
+    var overlapping = new boolean[1];
+    processor.subscribe(new Flow.Subscriber<>() {
+      private boolean subscribing;
+
+      @Override public void onSubscribe(Flow.Subscription subscription) {
+        subscribing = true;
+        subscription.request(Long.MAX_VALUE);
+        subscribing = false;
+      }
+
+      @Override public void onNext(Integer item) {
+        overlapping[0] |= subscribing;
+        items.add(item);
+      }
+
+      @Override public void onError(Throwable throwable) {
+      }
+
+      @Override public void onComplete() {
+        overlapping[0] |= subscribing;
+      }
+    });
+
+    assertEquals(List.of(1, 2, 3), items);
+    assertFalse(overlapping[0]);
+  }
+
+  private static final class ListPublisher<T> implements Flow.Publisher<T> {
+    private final List<T> items;
+    private final List<Long> requests = new ArrayList<>();
+    private int index;
+    private long requested;
+    private boolean emitting;
+    private boolean cancelled;
+    private boolean completed;
+
+    private ListPublisher(List<T> items) {
+      this.items = items;
+    }
+
+    @Override public void subscribe(Flow.Subscriber<? super T> subscriber) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override public void request(long n) {
+          requests.add(n);
+          requested += n;
+          emit(subscriber);
+        }
+
+        @Override public void cancel() {
+          cancelled = true;
+        }
+      });
+    }
+
+    private void emit(Flow.Subscriber<? super T> subscriber) {
+      if (emitting) return;
+      emitting = true;
+      while (requested > 0 && index < items.size() && !cancelled) {
+        requested--;
+        subscriber.onNext(items.get(index++));
+      }
+
+      if (index == items.size() && !cancelled && !completed) {
+        completed = true;
+        subscriber.onComplete();
+      }
+      emitting = false;
+    }
+  }
+
+  private static final class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+    private final long initialRequest;
+    private final CountDownLatch terminated;
+    private final List<T> items = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    private RecordingSubscriber(long initialRequest) {
+      this(initialRequest, new CountDownLatch(1));
+    }
+
+    private RecordingSubscriber(long initialRequest, CountDownLatch terminated) {
+      this.initialRequest = initialRequest;
+      this.terminated = terminated;
+    }
+
+    @Override public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0) subscription.request(initialRequest);
+    }
+
+    @Override public void onNext(T item) {
+      items.add(item);
+    }
+
+    @Override public void onError(Throwable throwable) {
+      error = throwable;
+      terminated.countDown();
+    }
+
+    @Override public void onComplete() {
+      completed = true;
+      terminated.countDown();
+    }
+  }
+}
@@ -20,8 +20,16 @@ package org.pacien.lemonad.attempt;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -78,6 +86,26 @@ class AttemptTest {
     failure.ifSuccess(__ -> fail());
   }
 
+  @Test void testCaughtAttempt() {
+    assertEquals(Attempt.success(42), Attempt.attempt(() -> Integer.parseInt("42"), NumberFormatException.class, __ -> "NaN"));
+    assertEquals(Attempt.failure("NaN"), Attempt.attempt(() -> Integer.parseInt("lemon"), NumberFormatException.class, __ -> "NaN"));
+
+    var exception = new IllegalArgumentException();
+    assertEquals(exception, assertThrows(IllegalArgumentException.class, () -> Attempt.attempt(() -> {
+      throw exception;
+    }, NumberFormatException.class, __ -> "NaN")));
+  }
+
+  @Test void testStacklessException() {
+    var exception = new StacklessException("lemon");
+    exception.addSuppressed(new Exception());
+    assertEquals(0, exception.getStackTrace().length);
+    assertEquals(0, exception.getSuppressed().length);
+    assertEquals(Attempt.failure("lemon"), Attempt.attempt(() -> {
+      throw exception;
+    }, StacklessException.class, StacklessException::getMessage));
+  }
+
   @Test void testTransformationFlow() {
     var result0 = 0;
     var result1 = "res";
@@ -131,4 +159,92 @@ class AttemptTest {
       .ifSuccess((String result) -> assertEquals(result3, result))
       .ifFailure((Boolean __) -> fail());
   }
+
+  @Test void testAll() throws InterruptedException {
+    var executor = Executors.newCachedThreadPool();
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var suppliers = IntStream.range(0, 20).<ThrowingSupplier<Integer, Exception>>mapToObj(i -> () -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      Thread.sleep(1);
+      running.decrementAndGet();
+      return i;
+    }).collect(toList());
+
+    var success = Attempt.all(suppliers, executor, 3);
+    assertEquals(IntStream.range(0, 20).boxed().collect(toList()), success.getResult());
+    assertTrue(maxRunning.get() <= 3);
+
+    var exception = new Exception();
+    var started = new CountDownLatch(1);
+    var interrupted = new CountDownLatch(1);
+    var failure = Attempt.<Integer, Exception>all(List.of(
+      () -> {
+        started.countDown();
+        try {
+          new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        return 0;
+      },
+      () -> {
+        started.await();
+        throw exception;
+      }), executor, 2);
+
+    assertEquals(List.of(exception), failure.getError());
+    assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    executor.shutdown();
+  }
+
+  @Test void testInterruptedCombinators() {
+    var executor = Executors.newCachedThreadPool();
+    List<ThrowingSupplier<Integer, IllegalStateException>> suppliers = List.of(() -> 0);
+
+    for (var combinator : List.<Runnable>of(
+      () -> Attempt.all(suppliers, executor, 1),
+      () -> Attempt.any(suppliers, executor, 1),
+      () -> Attempt.race(suppliers, executor, 1))) {
+      Thread.currentThread().interrupt();
+      var thrown = assertThrows(CompletionException.class, combinator::run);
+      assertTrue(thrown.getCause() instanceof InterruptedException);
+      assertTrue(Thread.interrupted());
+    }
+    executor.shutdownNow();
+  }
+
+  @Test void testAny() {
+    var executor = Executors.newCachedThreadPool();
+    var exception = new Exception();
+    List<ThrowingSupplier<String, Exception>> suppliers = List.of(
+      () -> {
+        throw exception;
+      },
+      () -> "result",
+      () -> {
+        new CountDownLatch(1).await();
+        return "late";
+      });
+
+    assertEquals(Attempt.success("result"), Attempt.any(suppliers, executor, 3));
+    assertEquals(Attempt.failure(List.of(exception, exception)), Attempt.any(List.of(suppliers.get(0), suppliers.get(0)), executor, 1));
+    executor.shutdown();
+  }
+
+  @Test void testRace() {
+    var executor = Executors.newCachedThreadPool();
+    var exception = new Exception();
+    List<ThrowingSupplier<String, Exception>> suppliers = List.of(
+      () -> {
+        new CountDownLatch(1).await();
+        return "late";
+      },
+      () -> {
+        throw exception;
+      });
+
+    assertEquals(Attempt.failure(exception), Attempt.race(suppliers, executor, 2));
+    executor.shutdown();
+  }
 }
@@ -0,0 +1,127 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class CircuitBreakerTest {
+  private static final Duration SECOND = Duration.ofSeconds(1);
+
+  @Test void testStateMachine() {
+    var clock = new AtomicLong();
+    var calls = new AtomicInteger();
+    var breaker = CircuitBreaker.of("open", 0.5, 4, SECOND, SECOND, 2, clock::get);
+
+    for (var i = 0; i < 3; i++) assertTrue(breaker.<Integer>apply(() -> Attempt.failure("down")).isFailure());
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    breaker.apply(() -> Attempt.success(1));
+    breaker.apply(() -> Attempt.failure("down"));
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    var rejected = breaker.<Integer>apply(() -> Attempt.success(calls.incrementAndGet()));
+    assertEquals("open", rejected.getError());
+    assertSame(rejected, breaker.<String>apply(() -> Attempt.success("unreachable")));
+    assertEquals(0, calls.get());
+    assertEquals(2, breaker.getRejectionCount());
+
+    clock.addAndGet(SECOND.toNanos());
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertTrue(breaker.<Integer>apply(() -> Attempt.failure("still down")).isFailure());
+    assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+    clock.addAndGet(SECOND.toNanos());
+    assertEquals(1, breaker.<Integer>apply(() -> Attempt.success(calls.incrementAndGet())).getResult());
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertEquals(2, breaker.<Integer>apply(() -> Attempt.success(calls.incrementAndGet())).getResult());
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+    breaker.apply(() -> Attempt.failure("down"));
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test void testTrialPermits() {
+    var clock = new AtomicLong();
+    var breaker = CircuitBreaker.of("open", 1, 1, SECOND, Duration.ZERO, 1, clock::get);
+    breaker.apply(() -> Attempt.failure("down"));
+
+    var nested = new AtomicInteger();
+    var outcome = breaker.<String>apply(() -> {
+      nested.set(breaker.<Integer>apply(() -> Attempt.success(1)).isFailure() ? 1 : 0);
+      return Attempt.success("trial");
+    });
+
+    assertEquals("trial", outcome.getResult());
+    assertEquals(1, nested.get());
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test void testLateTrialOutcomeIsIgnored() {
+    var breaker = CircuitBreaker.of("open", 1, 1, SECOND, Duration.ZERO, 2, System::nanoTime);
+    breaker.apply(() -> Attempt.failure("down"));
+
+    breaker.<String>apply(() -> {
+      breaker.apply(() -> Attempt.failure("still down"));
+      assertTrue(breaker.<Integer>apply(() -> Attempt.success(1)).isSuccess());
+      return Attempt.success("late");
+    });
+
+    assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    assertTrue(breaker.<Integer>apply(() -> Attempt.success(2)).isSuccess());
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test void testSlidingWindow() {
+    var clock = new AtomicLong();
+    var breaker = CircuitBreaker.of("open", 0.5, 4, SECOND, SECOND, 1, clock::get);
+    IntStream.range(0, 3).forEach(i -> breaker.apply(() -> Attempt.failure("down")));
+    clock.addAndGet(SECOND.toNanos());
+    breaker.apply(() -> Attempt.failure("down"));
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test void testConcurrentCalls() {
+    var breaker = CircuitBreaker.<String>of("open", 0.5, 100, SECOND, SECOND, 1);
+    var successes = IntStream.range(0, 100_000).parallel()
+      .mapToObj(i -> breaker.<Integer>apply(() -> Attempt.success(i)))
+      .filter(Attempt::isSuccess)
+      .count();
+
+    assertEquals(100_000, successes);
+    assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+  }
+
+  @Test void testInvalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of("open", 0, 1, SECOND, SECOND, 1));
+    assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of("open", 0.5, 1, Duration.ZERO, SECOND, 1));
+    assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.of("open", 0.5, 1, SECOND, SECOND, 0));
+  }
+}
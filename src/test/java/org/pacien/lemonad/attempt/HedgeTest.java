@@ -0,0 +1,175 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class HedgeTest {
+  @Test void testFastCall() {
+    var executor = Executors.newCachedThreadPool();
+    var hedge = Hedge.of(Duration.ofSeconds(10), 1, executor);
+    assertEquals(Attempt.success("result"), hedge.attempt(() -> "result"));
+    assertEquals(0, hedge.getStartedHedges());
+    executor.shutdown();
+  }
+
+  @Test void testSlowCall() throws InterruptedException {
+    var pool = Executors.newCachedThreadPool();
+    var calls = new AtomicInteger();
+    var hedge = Hedge.of(Duration.ofMillis(10), 1, inCallOrder(pool, calls));
+    var interrupted = new CountDownLatch(1);
+    var attempt = hedge.<String, Exception>attempt(() -> {
+      if (calls.getAndIncrement() > 0) return "hedge";
+
+      try {
+        new CountDownLatch(1).await();
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return "primary";
+    });
+
+    assertEquals(Attempt.success("hedge"), attempt);
+    assertEquals(1, hedge.getStartedHedges());
+    assertEquals(1, hedge.getWonHedges());
+    assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    pool.shutdown();
+  }
+
+  @Test void testHedgeLimit() {
+    var executor = Executors.newCachedThreadPool();
+    var hedge = Hedge.of(Duration.ZERO, 0, executor);
+    var caller = Thread.currentThread();
+    assertEquals(Attempt.success("result"), hedge.attempt(() -> {
+      awaitWaiting(caller);
+      return "result";
+    }));
+    assertEquals(0, hedge.getStartedHedges());
+    executor.shutdown();
+  }
+
+  @Test void testRejectedHedge() {
+    var pool = Executors.newCachedThreadPool();
+    var submissions = new AtomicInteger();
+    var rejected = new CountDownLatch(1);
+    Executor executor = task -> {
+      if (submissions.getAndIncrement() == 0) {
+        pool.execute(task);
+        return;
+      }
+
+      rejected.countDown();
+      throw new RejectedExecutionException();
+    };
+
+    var hedge = Hedge.of(Duration.ZERO, 1, executor);
+    assertEquals(Attempt.success("primary"), hedge.attempt(() -> {
+      rejected.await();
+      return "primary";
+    }));
+    assertEquals(0, hedge.getStartedHedges());
+    pool.shutdown();
+  }
+
+  @Test void testCancelledHedgeKeepsItsSlot() {
+    var pool = Executors.newCachedThreadPool();
+    var calls = new AtomicInteger();
+    var hedge = Hedge.of(Duration.ZERO, 1, inCallOrder(pool, calls));
+    var hedgeStarted = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var caller = Thread.currentThread();
+    ThrowingSupplier<String, InterruptedException> supplier = () -> {
+      switch (calls.getAndIncrement()) {
+        case 0:
+          hedgeStarted.await();
+          return "primary";
+
+        case 1:
+          hedgeStarted.countDown();
+          while (release.getCount() > 0) {
+            try {
+              release.await();
+            } catch (InterruptedException ignored) {
+              // keeps running after its cancellation
+            }
+          }
+          return "hedge";
+
+        case 2:
+          awaitWaiting(caller);
+          return "other";
+
+        default:
+          return "second hedge";
+      }
+    };
+
+    assertEquals(Attempt.success("primary"), hedge.attempt(supplier));
+    assertEquals(Attempt.success("other"), hedge.attempt(supplier));
+    assertEquals(1, hedge.getStartedHedges());
+    release.countDown();
+    pool.shutdown();
+  }
+
+  @Test void testInterruptedCaller() {
+    var executor = Executors.newCachedThreadPool();
+    var hedge = Hedge.of(Duration.ofSeconds(10), 1, executor);
+    Thread.currentThread().interrupt();
+    var thrown = assertThrows(CompletionException.class, () -> hedge.<String, IllegalStateException>attempt(() -> "result"));
+    assertTrue(thrown.getCause() instanceof InterruptedException);
+    assertTrue(Thread.interrupted());
+    executor.shutdown();
+  }
+
+  /**
+   * @return an {@link Executor} returning only once the submitted task has called its supplier,
+   * so that the calls happen in submission order.
+   */
+  private static Executor inCallOrder(Executor pool, AtomicInteger calls) {
+    var submissions = new AtomicInteger();
+    return task -> {
+      var submission = submissions.getAndIncrement();
+      pool.execute(task);
+      while (calls.get() <= submission) Thread.onSpinWait();
+    };
+  }
+
+  /**
+   * Waits until the given thread blocks indefinitely, for example on the completion of a call.
+   */
+  private static void awaitWaiting(Thread thread) {
+    while (thread.getState() != Thread.State.WAITING) Thread.onSpinWait();
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author pacien
+ */
+class IntAttemptTest {
+  @Test void testSuccess() {
+    var success = IntAttempt.attempt(() -> Integer.parseInt("42"));
+    assertTrue(success.isSuccess());
+    assertFalse(success.isFailure());
+    assertEquals(42, success.getResult());
+    assertThrows(NoSuchElementException.class, success::getError);
+    success.ifFailure(__ -> fail());
+    success.ifSuccess(result -> assertEquals(42, result));
+    assertEquals(Attempt.success(42), success.boxed());
+  }
+
+  @Test void testFailure() {
+    var failure = IntAttempt.attempt(() -> Integer.parseInt("lemon"));
+    assertTrue(failure.isFailure());
+    assertFalse(failure.isSuccess());
+    assertTrue(failure.getError() instanceof NumberFormatException);
+    assertThrows(NoSuchElementException.class, failure::getResult);
+    failure.ifSuccess(__ -> fail());
+  }
+
+  @Test void testTransformationFlow() {
+    IntAttempt.<String>success(42)
+      .mapResult(r -> r + 1)
+      .transformResult(r -> IntAttempt.<String>failure("fail"))
+      .ifSuccess(__ -> fail())
+      .mapError(String::length)
+      .recoverError(err -> IntAttempt.success(43))
+      .ifFailure(__ -> fail())
+      .mapResultToLong(r -> (long) r)
+      .ifSuccess(result -> assertEquals(42L + 1, result))
+      .mapResultToObj(String::valueOf)
+      .mapResultToInt(String::length)
+      .transformResultToObj(r -> Attempt.failure(0))
+      .ifFailure(err -> assertEquals(0, err));
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class LazyAttemptTest {
+  @Test void testDeferredAndMemoized() {
+    var evaluations = new AtomicInteger();
+    var lazy = Attempt.<Integer, String>lazy(() -> Attempt.success(evaluations.incrementAndGet()));
+    assertEquals(0, evaluations.get());
+    assertTrue(lazy.isSuccess());
+    assertEquals(1, lazy.getResult());
+    assertEquals(1, lazy.getResult());
+    assertEquals(1, evaluations.get());
+  }
+
+  @Test void testCombinatorsStayLazy() {
+    var evaluations = new AtomicInteger();
+    var mapped = Attempt.<Integer, String>lazy(() -> Attempt.success(evaluations.incrementAndGet()))
+      .mapResult(result -> result * 10)
+      .transformResult(result -> result > 5 ? Attempt.failure("big") : Attempt.success(result))
+      .mapError(String::length);
+    assertEquals(0, evaluations.get());
+    assertEquals(3, mapped.getError());
+    assertEquals(1, evaluations.get());
+  }
+
+  @Test void testEquality() {
+    var success = Attempt.<Integer, String>lazy(() -> Attempt.success(1));
+    assertEquals(Attempt.success(1), success);
+    assertEquals(success, Attempt.success(1));
+    assertEquals(Attempt.success(1).hashCode(), success.hashCode());
+    assertEquals(success, Attempt.lazy(() -> Attempt.lazy(() -> Attempt.success(1))));
+
+    var failure = Attempt.<Integer, String>lazy(() -> Attempt.failure("error"));
+    assertEquals(Attempt.failure("error"), failure);
+    assertEquals(failure, Attempt.failure("error"));
+    assertEquals(Attempt.failure("error").hashCode(), failure.hashCode());
+    assertNotEquals(Attempt.success("error"), failure);
+    assertNotEquals(failure, Attempt.success("error"));
+  }
+
+  @Test void testLazyAttempt() {
+    var evaluations = new AtomicInteger();
+    var lazy = Attempt.<Integer, Exception>lazyAttempt(() -> {
+      evaluations.incrementAndGet();
+      throw new Exception("failed");
+    });
+    assertEquals(0, evaluations.get());
+    assertTrue(lazy.isFailure());
+    assertEquals("failed", lazy.getError().getMessage());
+    assertEquals(1, evaluations.get());
+  }
+
+  @Test void testThrowingSupplierStaysPending() {
+    var evaluations = new AtomicInteger();
+    var lazy = new LazyAttempt<Integer, String>(() -> {
+      if (evaluations.incrementAndGet() == 1) throw new IllegalStateException();
+      return Attempt.success(42);
+    });
+    assertThrows(IllegalStateException.class, lazy::isSuccess);
+    assertFalse(lazy.isEvaluated());
+    assertEquals(42, lazy.getResult());
+    assertTrue(lazy.isEvaluated());
+  }
+
+  @Test void testConcurrentReadersEvaluateOnce() throws Exception {
+    var evaluations = new AtomicInteger();
+    var release = new CountDownLatch(1);
+    var lazy = Attempt.<Integer, String>lazy(() -> {
+      evaluations.incrementAndGet();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Attempt.success(42);
+    });
+
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      var readers = new ArrayList<Future<Integer>>();
+      for (var i = 0; i < 8; i++) readers.add(executor.submit(lazy::getResult));
+      release.countDown();
+      for (var reader : readers) assertEquals(42, reader.get(5, TimeUnit.SECONDS));
+      assertEquals(1, evaluations.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.attempt;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class RetryTest {
+  private static final Duration MILLI = Duration.ofMillis(1);
+
+  @Test void testRetryUntilSuccess() {
+    var calls = new AtomicInteger();
+    var retry = Retry.<String>of("transient"::equals, 5, MILLI, MILLI);
+    var outcome = retry.<Integer>apply(() -> calls.incrementAndGet() < 3 ? Attempt.failure("transient") : Attempt.success(calls.get()));
+
+    assertEquals(3, outcome.getResult());
+    assertEquals(3, retry.getAttemptCount());
+    assertEquals(2, retry.getRetryCount());
+    assertEquals(0, retry.getExhaustedCount());
+  }
+
+  @Test void testNonRetryableAndExhausted() {
+    var retry = Retry.<String>of("transient"::equals, 3, Duration.ZERO, MILLI);
+    assertEquals("fatal", retry.<Integer>apply(() -> Attempt.failure("fatal")).getError());
+    assertEquals(1, retry.getAttemptCount());
+    assertEquals(0, retry.getExhaustedCount());
+
+    assertEquals("transient", retry.<Integer>apply(() -> Attempt.failure("transient")).getError());
+    assertEquals(4, retry.getAttemptCount());
+    assertEquals(2, retry.getRetryCount());
+    assertEquals(1, retry.getExhaustedCount());
+  }
+
+  @Test void testBudget() {
+    var clock = new AtomicLong();
+    var budget = RetryBudget.of(1, 2, clock::get);
+    var retry = Retry.<String>of(error -> true, 10, Duration.ZERO, Duration.ZERO).withBudget(budget);
+
+    assertTrue(retry.<Integer>apply(() -> Attempt.failure("down")).isFailure());
+    assertEquals(3, retry.getAttemptCount());
+    assertEquals(1, retry.getExhaustedCount());
+    assertEquals(1, budget.getRejectionCount());
+
+    retry.apply(() -> Attempt.failure("down"));
+    assertEquals(4, retry.getAttemptCount());
+
+    clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertTrue(budget.tryAcquire());
+    assertFalse(budget.tryAcquire());
+  }
+
+  @Test void testAsync() {
+    var scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      var calls = new AtomicInteger();
+      var retry = Retry.<String>of("transient"::equals, 5, MILLI, Duration.ofMillis(4));
+      var outcome = retry.<Integer>applyAsync(() -> calls.incrementAndGet() < 4 ? Attempt.failure("transient") : Attempt.success(calls.get()), scheduler);
+
+      assertEquals(4, outcome.join().getResult());
+      assertEquals(3, retry.getRetryCount());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test void testInvalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> Retry.of(error -> true, 0, MILLI, MILLI));
+    assertThrows(IllegalArgumentException.class, () -> Retry.of(error -> true, 1, Duration.ofSeconds(1), MILLI));
+    assertThrows(IllegalArgumentException.class, () -> RetryBudget.of(0, 1));
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.codec;
+
+import org.junit.jupiter.api.Test;
+import org.pacien.lemonad.attempt.Attempt;
+import org.pacien.lemonad.validation.Validation;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author pacien
+ */
+class CodecTest {
+  private static <T> T roundTrip(Codec<T> codec, T value) {
+    var buffer = ByteBuffer.allocate(codec.size(value));
+    codec.write(value, buffer);
+    assertFalse(buffer.hasRemaining());
+    return codec.read(buffer.flip());
+  }
+
+  @Test void testBuiltins() {
+    for (var value : List.of(0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE)) assertEquals(value, roundTrip(Codec.ofInt(), value));
+    for (var value : List.of(0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE)) assertEquals(value, roundTrip(Codec.ofLong(), value));
+    assertEquals(1, Codec.ofInt().size(-1));
+    assertEquals(Math.PI, (double) roundTrip(Codec.ofDouble(), Math.PI));
+    assertEquals(true, roundTrip(Codec.ofBoolean(), true));
+    for (var value : List.of("", "ascii", "\u00e9\u20ac", "\uD83D\uDE00", "lone \uD800 surrogate")) assertEquals(value.replace('\uD800', '?'), roundTrip(Codec.ofString(), value));
+    assertArrayEquals(new byte[] {1, 2, 3}, roundTrip(Codec.ofBytes(), new byte[] {1, 2, 3}));
+    assertEquals(List.of("a", "b"), roundTrip(Codec.ofList(Codec.ofString()), List.of("a", "b")));
+  }
+
+  @Test void testAttempt() {
+    var codec = AttemptCodec.of(Codec.ofInt(), Codec.ofString());
+    assertEquals(Attempt.success(42), roundTrip(codec, Attempt.success(42)));
+    assertEquals(Attempt.failure("failed"), roundTrip(codec, Attempt.failure("failed")));
+    assertEquals(2, codec.size(Attempt.success(42)));
+    assertThrows(IllegalArgumentException.class, () -> codec.read(ByteBuffer.wrap(new byte[] {7})));
+  }
+
+  @Test void testValidation() {
+    var codec = ValidationCodec.of(Codec.ofString(), Codec.ofInt());
+    assertEquals(Validation.of("valid"), roundTrip(codec, Validation.of("valid")));
+    var invalid = roundTrip(codec, Validation.of("invalid", 1, 2, 3));
+    assertEquals("invalid", invalid.getSubject());
+    assertEquals(List.of(1, 2, 3), invalid.getErrors());
+  }
+
+  @Test void testFrames() {
+    var codec = AttemptCodec.of(Codec.ofInt(), Codec.ofString());
+    var first = List.of(Attempt.<Integer, String>success(1), Attempt.<Integer, String>failure("two"));
+    var second = List.of(Attempt.<Integer, String>success(3));
+    var buffer = ByteBuffer.allocate(Frames.size(codec, first) + Frames.size(codec, second));
+    Frames.write(codec, first, buffer);
+    Frames.write(codec, second, buffer);
+    buffer.flip();
+
+    assertEquals(first, Frames.read(codec, buffer));
+    var iterator = Frames.iterate(codec, buffer);
+    assertFalse(buffer.hasRemaining());
+    assertEquals(Attempt.success(3), iterator.next());
+    assertFalse(iterator.hasNext());
+    assertThrows(BufferUnderflowException.class, () -> Frames.read(codec, buffer));
+  }
+
+  @Test void testTruncatedFrame() {
+    var buffer = ByteBuffer.allocate(Frames.size(Codec.ofInt(), List.of(1, 2, 3)));
+    Frames.write(Codec.ofInt(), List.of(1, 2, 3), buffer);
+    var truncated = buffer.flip().limit(buffer.limit() - 1);
+    assertThrows(BufferUnderflowException.class, () -> Frames.read(Codec.ofInt(), truncated));
+    assertEquals(0, truncated.position());
+  }
+
+  @Test void testCorruptStringLength() {
+    var buffer = ByteBuffer.allocate(64);
+    buffer.putInt(3).put((byte) 1).put((byte) 40).put((byte) 'a');
+    Frames.write(Codec.ofString(), List.of("next frame"), buffer);
+    buffer.flip();
+
+    assertThrows(BufferUnderflowException.class, () -> Frames.read(Codec.ofString(), buffer));
+    assertThrows(BufferUnderflowException.class, () -> Frames.read(Codec.ofBytes(), buffer.rewind()));
+    assertThrows(BufferUnderflowException.class, () -> Frames.iterate(Codec.ofString(), buffer.rewind()).next());
+  }
+
+  @Test void testChannelAndMappedFile() throws Exception {
+    var file = Files.createTempFile("frames", ".bin");
+    try {
+      var values = IntStream.range(0, 1000).mapToObj(i -> i % 7 == 0 ? Attempt.<Integer, String>failure("e" + i) : Attempt.<Integer, String>success(i)).collect(toList());
+      var codec = AttemptCodec.of(Codec.ofInt(), Codec.ofString());
+      try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        for (var from = 0; from < values.size(); from += 100) Frames.write(codec, values.subList(from, from + 100), channel);
+      }
+
+      var decoded = new ArrayList<Attempt<Integer, String>>();
+      try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        Frames.iterateAll(codec, mapped).forEachRemaining(decoded::add);
+      }
+      assertEquals(values, decoded);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test void testStreamChannel() throws Exception {
+    var output = new ByteArrayOutputStream();
+    Frames.write(Codec.ofString(), List.of("a", "b"), Channels.newChannel(output));
+    assertEquals(List.of("a", "b"), Frames.read(Codec.ofString(), ByteBuffer.wrap(output.toByteArray())));
+  }
+}
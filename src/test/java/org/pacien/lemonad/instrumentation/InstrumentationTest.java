@@ -0,0 +1,104 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.instrumentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.pacien.lemonad.attempt.Attempt;
+import org.pacien.lemonad.validation.Validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class InstrumentationTest {
+  @Test void testDisabledReturnsUnwrapped() {
+    var instrumentation = Instrumentation.disabled();
+    Function<String, Attempt<Integer, String>> stage = s -> Attempt.success(s.length());
+    Predicate<String> predicate = String::isEmpty;
+    assertFalse(instrumentation.isEnabled());
+    assertSame(stage, instrumentation.stage("stage", stage));
+    assertSame(predicate, instrumentation.rule("rule", predicate));
+  }
+
+  @Test void testStageCounts() {
+    var sink = new StripedMetricsSink();
+    var instrumentation = Instrumentation.of(sink);
+    var parse = instrumentation.stage("parse", (String s) -> s.chars().allMatch(Character::isDigit)
+      ? Attempt.<Integer, String>success(Integer.parseInt(s))
+      : Attempt.<Integer, String>failure(s));
+
+    assertEquals(42, Attempt.<String, String>success("42").transformResult(parse).getResult());
+    assertEquals("x", Attempt.<String, String>success("x").transformResult(parse).getError());
+    assertEquals("y", Attempt.<String, String>success("y").transformResult(parse).getError());
+
+    var metrics = sink.getMetrics("parse").orElseThrow();
+    assertEquals("parse", metrics.getName());
+    assertEquals(1, metrics.getSuccessCount());
+    assertEquals(2, metrics.getFailureCount());
+    var recorded = 0L;
+    for (var count : metrics.getLatencyHistogram()) recorded += count;
+    assertEquals(3, recorded);
+    assertTrue(metrics.getLatencyUpperBound(.5) > 0);
+  }
+
+  @Test void testStageExceptionCountsAsFailure() {
+    var sink = new StripedMetricsSink();
+    var stage = Instrumentation.of(sink).stage("throwing", (String s) -> {
+      throw new IllegalStateException();
+    });
+    assertThrows(IllegalStateException.class, () -> stage.apply("x"));
+    assertEquals(1, sink.getMetrics("throwing").orElseThrow().getFailureCount());
+  }
+
+  @Test void testRuleCounts() {
+    var sink = new StripedMetricsSink();
+    var instrumentation = Instrumentation.of(sink);
+    var notEmpty = instrumentation.rule("not-empty", (String s) -> !s.isEmpty());
+    var shortText = instrumentation.validator("short", (String s) -> s.length() > 3 ? List.of("too long") : List.<String>of());
+
+    var validation = Validation.<String, String>of("hello")
+      .validate(notEmpty, "empty")
+      .validate(shortText);
+
+    assertEquals(List.of("too long"), validation.getErrors());
+    assertEquals(1, sink.getMetrics("not-empty").orElseThrow().getSuccessCount());
+    assertEquals(1, sink.getMetrics("short").orElseThrow().getFailureCount());
+    assertEquals(2, sink.getAllMetrics().size());
+  }
+
+  @Test void testLatencyUpperBound() {
+    var metrics = new StripedStageMetrics("latency");
+    metrics.record(true, 1);
+    metrics.record(true, 100);
+    metrics.record(false, 1000);
+    assertEquals(1, metrics.getLatencyUpperBound(0));
+    assertEquals(127, metrics.getLatencyUpperBound(.5));
+    assertEquals(1023, metrics.getLatencyUpperBound(1));
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class ColumnValidatorTest {
+  private static final IntColumnValidator<String> AGE_VALIDATOR = IntColumnValidator.<String>of()
+    .validate(age -> age >= 0, "negative")
+    .validate(age -> age < 150, "too old");
+
+  private static BitSet bits(int... indices) {
+    var bits = new BitSet();
+    for (var index : indices) bits.set(index);
+    return bits;
+  }
+
+  @Test void testIntColumn() {
+    var validation = AGE_VALIDATOR.apply(new int[] {30, -1, 200, 42});
+    assertEquals(4, validation.getRowCount());
+    assertEquals(2, validation.getRuleCount());
+    assertEquals(bits(1), validation.getFailures(0));
+    assertEquals(bits(2), validation.getFailures(1));
+    assertEquals(bits(1, 2), validation.getInvalidRows());
+    assertEquals(2, validation.getInvalidCount());
+    assertTrue(validation.isInvalid());
+    assertTrue(validation.isValid(0));
+    assertFalse(validation.isValid(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> validation.isValid(4));
+  }
+
+  @Test void testMaterialisedValidations() {
+    var validation = AGE_VALIDATOR.apply(new int[] {30, -1, 200});
+    assertEquals(Validation.of(30), validation.getValidation(0));
+    assertEquals(-1, validation.getValidation(1).getSubject());
+    assertEquals(List.of("negative"), validation.getValidation(1).getErrors());
+    var invalid = validation.getInvalidValidations();
+    assertEquals(2, invalid.size());
+    assertEquals(200, invalid.get(1).getSubject());
+    assertEquals(List.of("too old"), invalid.get(1).getErrors());
+  }
+
+  @Test void testMatchesRowValidation() {
+    var column = new int[1000];
+    for (var row = 0; row < column.length; row++) column[row] = row * 7 % 300 - 50;
+    var columnValidation = AGE_VALIDATOR.apply(column);
+    for (var row = 0; row < column.length; row++) {
+      var rowValidation = Validation.<Integer, String>of(column[row])
+        .validate(age -> age >= 0, "negative")
+        .validate(age -> age < 150, "too old");
+      assertEquals(rowValidation.getErrors(), columnValidation.getValidation(row).getErrors());
+    }
+  }
+
+  @Test void testIntBuffer() {
+    var buffer = IntBuffer.wrap(new int[] {-5, 10, -1, 300});
+    buffer.position(1);
+    var validation = AGE_VALIDATOR.apply(buffer);
+    assertEquals(1, buffer.position());
+    assertEquals(3, validation.getRowCount());
+    assertEquals(bits(1, 2), validation.getInvalidRows());
+    assertEquals(-1, validation.getValidation(1).getSubject());
+  }
+
+  @Test void testDoubleColumn() {
+    var validator = DoubleColumnValidator.<String>of()
+      .validate(Double::isFinite, "not finite")
+      .validate(amount -> amount > 0, "not positive");
+    var validation = validator.apply(new double[] {1.5, Double.NaN, -2, 3});
+    assertEquals(bits(1), validation.getFailures(0));
+    assertEquals(bits(1, 2), validation.getFailures(1));
+    assertEquals(List.of("not finite", "not positive"), validation.getValidation(1).getErrors());
+    assertEquals(bits(1), validator.apply(DoubleBuffer.wrap(new double[] {2, -1})).getInvalidRows());
+  }
+
+  @Test void testEmpty() {
+    assertTrue(IntColumnValidator.<String>of().apply(new int[] {1, 2}).isValid());
+    assertTrue(AGE_VALIDATOR.apply(new int[0]).isValid());
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class MemoizedRuleTest {
+  @Test void testMemoization() {
+    var calls = new AtomicInteger();
+    var countryRule = MemoizedRule.<String, String>of(country -> {
+      calls.incrementAndGet();
+      return country != null && country.length() == 2 ? List.of() : List.of("bad country");
+    }, 16);
+
+    var validator = Validator.<String[], String>of().validate(address -> address[0], countryRule);
+    assertTrue(validator.isValid(new String[] {"FR"}));
+    assertTrue(validator.isValid(new String[] {"FR"}));
+    assertEquals(List.of("bad country"), validator.apply(new String[] {"France"}).getErrors());
+    assertEquals(List.of("bad country"), validator.apply(new String[] {"France"}).getErrors());
+    assertEquals(2, calls.get());
+    assertEquals(2, countryRule.getHitCount());
+    assertEquals(2, countryRule.getMissCount());
+    assertEquals(0.5, countryRule.getHitRate());
+
+    assertEquals(List.of("bad country"), validator.apply(new String[] {null}).getErrors());
+    assertEquals(3, calls.get());
+    assertEquals(2, countryRule.size());
+  }
+
+  @Test void testBoundedUnderBulkValidation() {
+    var domainRule = MemoizedRule.<String, String>of(domain -> domain.endsWith(".invalid") ? List.of(domain) : List.of(), 8);
+    var validator = Validator.<String, String>of()
+      .validate(Objects::nonNull, "null")
+      .validate(email -> email.substring(email.indexOf('@') + 1), domainRule);
+
+    var emails = IntStream.range(0, 10_000)
+      .mapToObj(i -> "user" + i + "@domain" + (i % 4) + (i % 2 == 0 ? ".invalid" : ".org"))
+      .collect(toList());
+
+    var validation = validator.applyAll(emails);
+    assertEquals(5_000, validation.getInvalidCount());
+    assertEquals(10_000, domainRule.getHitCount() + domainRule.getMissCount() + domainRule.getJoinCount());
+    assertTrue(domainRule.getMissCount() < 100);
+    assertTrue(domainRule.size() <= 8);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class ValidationCollectorsTest {
+  @Test void testMerging() {
+    var subject = "subject";
+    var merged = Stream.of(Validation.<Integer, Character>of(1), Validation.of(2, 'a', 'b'), Validation.of(3, 'c'))
+      .collect(ValidationCollectors.<String, Character>merging(subject));
+    assertEquals(subject, merged.getSubject());
+    assertEquals(List.of('a', 'b', 'c'), merged.getErrors());
+  }
+
+  @Test void testMergingValid() {
+    var merged = Stream.of(Validation.<Integer, Character>of(1), Validation.<Integer, Character>of(2))
+      .collect(ValidationCollectors.<String, Character>merging("subject"));
+    assertTrue(merged.isValid());
+  }
+
+  @Test void testParallelMergingPreservesOrder() {
+    var merged = IntStream.range(0, 10_000).boxed().parallel()
+      .collect(ValidationCollectors.<Integer, String, Integer>merging("subject", i -> Validation.of(i, i)));
+    assertEquals(IntStream.range(0, 10_000).boxed().collect(toList()), merged.getErrors());
+  }
+}
@@ -22,10 +22,17 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.pacien.lemonad.attempt.Attempt;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static java.util.function.Function.identity;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -88,4 +95,96 @@ class ValidationTest {
 
     assertEquals(Validation.of("subject", 0, 2, 3), validation);
   }
+
+  @Test void testMergeBranches() {
+    var base = Validation.of("subject", 0);
+    var left = base.merge(List.of(1)).merge(List.of(2));
+    var right = base.merge(List.of(3));
+    assertEquals(List.of(0), base.getErrors());
+    assertEquals(List.of(0, 1, 2), left.getErrors());
+    assertEquals(List.of(0, 3), right.getErrors());
+    assertEquals(List.of(0, 1, 2, 4), left.merge(List.of(4)).getErrors());
+    assertEquals(List.of(0, 1, 2, 5), left.merge(List.of(5)).getErrors());
+  }
+
+  @Test void testMergeMany() {
+    var validation = Validation.<String, Integer>of("subject");
+    var expected = new ArrayList<Integer>();
+    for (var i = 0; i < 1000; i++) {
+      validation = validation.merge(List.of(i));
+      expected.add(i);
+    }
+
+    var errors = validation.getErrors();
+    assertEquals(expected, errors);
+    assertSame(errors, validation.getErrors());
+    assertThrows(UnsupportedOperationException.class, () -> errors.add(0));
+  }
+
+  @Test void testFailFast() {
+    var validation = Validation
+      .<String, Integer>ofFailFast("subject")
+      .validate(String::isEmpty, 0)
+      .validate(subject -> List.of(1, 2))
+      .validate(subject -> fail("Should have been skipped."));
+
+    assertEquals(List.of(0), validation.getErrors());
+  }
+
+  @Test void testBounded() {
+    var validation = Validation
+      .<String, Integer>ofBounded("subject", 3, -1)
+      .validate(subject -> List.of(0, 1))
+      .validate(String::isEmpty, 2)
+      .validate(subject -> List.of(3))
+      .validate(subject -> List.of(4))
+      .merge(subject -> fail("Should have been skipped."));
+
+    assertEquals(List.of(0, 1, 2, -1), validation.getErrors());
+    assertEquals(List.of(0, 1, 3, -1), Validation.ofBounded("subject", 3, -1).merge(List.of(0, 1, 3, 4)).getErrors());
+    assertEquals(List.of(0), Validation.ofBounded("subject", 3, -1).merge(Validation.of("other", 0)).getErrors());
+
+    var bounded = Validation.ofBounded("subject", 3, -1).validate(String::isEmpty, 0);
+    assertEquals(Validation.of("subject", 0), bounded);
+    assertEquals(bounded, Validation.of("subject", 0));
+    assertEquals(Validation.of("subject", 0).hashCode(), bounded.hashCode());
+    assertEquals(Validation.of("subject"), Validation.ofFailFast("subject"));
+    assertNotEquals(Validation.of("other", 0), bounded);
+  }
+
+  @Test void testValidateEach() {
+    var validation = Validation
+      .<List<String>, ElementError<Integer>>of(List.of("a", "", "b", ""))
+      .validateEach(identity(), element -> Validation.<String, Integer>of(element).validate(e -> !e.isEmpty(), 0), ElementError::of);
+
+    assertEquals(2, validation.getErrors().size());
+    assertArrayEquals(new int[] {1}, validation.getErrors().get(0).getPath());
+    assertArrayEquals(new int[] {3}, validation.getErrors().get(1).getPath());
+    assertEquals(0, validation.getErrors().get(1).getError());
+  }
+
+  @Test void testValidateEachNested() {
+    var validation = Validation
+      .<List<List<String>>, ElementError<String>>of(List.of(List.of("a"), List.of("b", "")))
+      .validateEach(identity(), row -> Validation
+        .<List<String>, ElementError<String>>of(row)
+        .validateEach(identity(), cell -> Validation.<String, String>of(cell).validate(c -> !c.isEmpty(), "empty"), ElementError::of),
+        (index, error) -> error.prefixed(index));
+
+    assertEquals(1, validation.getErrors().size());
+    assertArrayEquals(new int[] {1, 1}, validation.getErrors().get(0).getPath());
+    assertEquals("empty", validation.getErrors().get(0).getError());
+  }
+
+  @Test void testValidateEachFailFastStopsPulling() {
+    var pulled = new ArrayList<Integer>();
+    Iterable<Integer> elements = IntStream.range(0, 1_000_000).peek(pulled::add).boxed()::iterator;
+    var validation = Validation
+      .<Iterable<Integer>, String>ofFailFast(elements)
+      .validateEach(identity(), element -> Validation.<Integer, String>of(element).validate(e -> e < 2, "too big"), (index, error) -> index + ": " + error)
+      .validate(subject -> fail("Should have been skipped."));
+
+    assertEquals(List.of("2: too big"), validation.getErrors());
+    assertTrue(pulled.size() <= 4);
+  }
 }
@@ -0,0 +1,292 @@
+/*
+ * lemonad - Some functional sweetness for Java
+ * Copyright (C) 2019  Pacien TRAN-GIRARD
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.pacien.lemonad.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.function.Function.identity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author pacien
+ */
+class ValidatorTest {
+  @Test void testEmpty() {
+    var validation = Validator.<String, Integer>of().apply("subject");
+    assertTrue(validation.isValid());
+    assertEquals(Validation.of("subject"), validation);
+  }
+
+  @Test void testValidate() {
+    var validator = Validator
+      .<String, Integer>of()
+      .validate(String::isEmpty, 0)
+      .validate(String::length, len -> len > 0, 1)
+      .validate(subject -> List.of(2, 3))
+      .validate(subject -> subject.charAt(0), firstChar -> firstChar == 's' ? List.of() : List.of(4));
+
+    assertEquals(Validation.of("subject", 0, 2, 3), validator.apply("subject"));
+    assertEquals(Validation.of("other", 0, 2, 3, 4), validator.apply("other"));
+  }
+
+  @Test void testMerge() {
+    var nested = Validator
+      .<String, Integer>of()
+      .validate(String::isEmpty, 2)
+      .validate(s -> List.of(3));
+
+    var validator = Validator
+      .<Integer, Integer>of()
+      .validate(s -> false, 0)
+      .merge(s -> Validation.of(s, 1))
+      .merge((Integer s) -> Integer.toString(s), nested)
+      .merge(Validator.<Integer, Integer>of().validate(s -> s < 0, 4))
+      .merge((Integer s) -> -s, (Integer s) -> Validation.of(s, 5));
+
+    assertEquals(Validation.of(12345, 0, 1, 2, 3, 4, 5), validator.apply(12345));
+  }
+
+  @Test void testMergeIntoValidation() {
+    var validator = Validator.<String, Integer>of().validate(String::isEmpty, 1);
+    assertEquals(Validation.of("subject", 0, 1), Validation.of("subject", 0).merge(validator));
+  }
+
+  @Test void testModes() {
+    var validator = Validator
+      .<String, Integer>of()
+      .validate(String::isEmpty, 0)
+      .validate(subject -> List.of(1, 2))
+      .validate(String::isBlank, 3)
+      .validate(subject -> List.of(4));
+
+    assertEquals(List.of(0, 1, 2, 3, 4), validator.apply("subject").getErrors());
+    assertEquals(List.of(0), validator.applyFailFast("subject").getErrors());
+    assertEquals(List.of(0, 1, -1), validator.apply("subject", 2, -1).getErrors());
+    assertEquals(List.of(0, 1, 2, -1), validator.apply("subject", 3, -1).getErrors());
+    assertEquals(List.of(0, 1, 2, 3, 4), validator.apply("subject", 5, -1).getErrors());
+    assertFalse(validator.isValid("subject"));
+    assertTrue(Validator.<String, Integer>of().validate(subject -> !subject.isEmpty(), 0).isValid("subject"));
+  }
+
+  @Test void testApplyAll() {
+    var validator = Validator.<Integer, String>of().validate(i -> i % 3 != 0, "multiple of three");
+    var subjects = IntStream.range(0, 100_000).boxed().collect(toList());
+
+    var bulkValidation = validator.applyAll(subjects);
+    assertEquals(100_000, bulkValidation.getValidations().size());
+    assertEquals(33_334, bulkValidation.getInvalidCount());
+    assertEquals(66_666, bulkValidation.getValidCount());
+    for (var i = 0; i < subjects.size(); i++) assertEquals(validator.apply(i), bulkValidation.getValidations().get(i));
+
+    var filtered = validator.applyAll(subjects.stream().filter(i -> i % 2 == 0));
+    assertEquals(50_000, filtered.getValidations().size());
+    assertEquals(16_667, filtered.getInvalidCount());
+    for (var i = 0; i < 50_000; i++) assertEquals(validator.apply(2 * i), filtered.getValidations().get(i));
+  }
+
+  @Test void testValidateEach() {
+    var cellValidator = Validator.<String, String>of().validate(cell -> !cell.isEmpty(), "empty");
+    var validator = Validator.<List<String>, ElementError<String>>of()
+      .validate(row -> !row.isEmpty(), ElementError.of(-1, "no cell"))
+      .validateEach(identity(), cellValidator, ElementError::of);
+
+    assertTrue(validator.isValid(List.of("a", "b")));
+    var validation = validator.apply(List.of("", "b", ""));
+    assertEquals(2, validation.getErrors().size());
+    assertEquals(2, validation.getErrors().get(1).getPath()[0]);
+    assertEquals("no cell", validator.apply(List.of()).getErrors().get(0).getError());
+  }
+
+  @Test void testValidateEachWithinBudget() {
+    var pulled = new AtomicInteger();
+    var cellValidator = Validator.<String, String>of().validate(cell -> !cell.isEmpty(), "empty");
+    var validator = Validator.<List<String>, ElementError<String>>of()
+      .validateEach(row -> () -> row.stream().peek(cell -> pulled.incrementAndGet()).iterator(), cellValidator, ElementError::of);
+
+    var row = List.of("a", "", "", "", "", "");
+    assertEquals(1, validator.applyFailFast(row).getErrors().size());
+    assertEquals(2, pulled.getAndSet(0));
+    assertFalse(validator.isValid(row));
+    assertEquals(2, pulled.getAndSet(0));
+
+    var truncated = validator.apply(row, 2, ElementError.of(-1, "more"));
+    assertEquals(3, truncated.getErrors().size());
+    assertEquals("more", truncated.getErrors().get(2).getError());
+    assertEquals(4, pulled.getAndSet(0));
+
+    assertEquals(5, validator.apply(row).getErrors().size());
+    assertEquals(6, pulled.get());
+  }
+
+  @Test void testWhenValid() {
+    var validator = Validator.<String, String>of()
+      .validate(Objects::nonNull, "null")
+      .whenValid(Validator.<String, String>of().validate(subject -> subject.length() < 3, "too long"));
+
+    assertEquals(List.of("null"), validator.apply(null).getErrors());
+    assertEquals(List.of("null"), validator.applyFailFast(null).getErrors());
+    assertFalse(validator.isValid(null));
+    assertEquals(List.of("too long"), validator.apply("long").getErrors());
+    assertTrue(validator.isValid("ok"));
+  }
+
+  @Test void testNestedPrerequisites() {
+    var nameValidator = Validator.<String, String>of()
+      .validate(Objects::nonNull, "no name")
+      .whenValid(Validator.<String, String>of().validate(name -> !name.isEmpty(), "empty name"));
+
+    var validator = Validator.<List<String>, String>of()
+      .validate(list -> list.size() == 2, "not a pair")
+      .merge(list -> list.get(0), nameValidator)
+      .merge(list -> list.get(1), nameValidator);
+
+    assertEquals(List.of("no name", "empty name"), validator.apply(Arrays.asList(null, "")).getErrors());
+    assertEquals(List.of("not a pair", "empty name"), validator.apply(Arrays.asList("", "b", "c")).getErrors());
+  }
+
+  @Test void testDisjointPrerequisites() {
+    var inner = Validator.<String, String>of()
+      .validate(subject -> !subject.startsWith("a"), "a")
+      .merge(Validator.<String, String>of()
+        .validate(subject -> !subject.startsWith("b"), "b")
+        .whenValid(Validator.<String, String>of().validate(subject -> !subject.endsWith("c"), "c")));
+
+    var validator = Validator.<String, String>of()
+      .validate(Objects::nonNull, "null")
+      .whenValid(inner)
+      .adaptive();
+
+    assertEquals(List.of("a", "c"), validator.apply("ac").getErrors());
+    assertEquals(List.of("b"), validator.apply("bc").getErrors());
+    assertEquals(List.of("null"), validator.apply(null).getErrors());
+    for (var i = 0; i < 10_000; i++) assertFalse(validator.isValid("ac"));
+    assertEquals(List.of("a"), validator.applyFailFast("ac").getErrors());
+  }
+
+  @Test void testChainedPrerequisites() {
+    var validator = Validator.<Integer, Integer>of();
+    for (var i = 0; i < 1_000; i++) {
+      var bound = i;
+      validator = validator.whenValid(Validator.<Integer, Integer>of().validate(subject -> subject > bound, bound));
+    }
+
+    assertEquals(List.of(500), validator.apply(500).getErrors());
+    assertTrue(validator.isValid(1_000));
+    var adaptive = validator.adaptive();
+    for (var i = 0; i < 10_000; i++) assertFalse(adaptive.isValid(10));
+    assertEquals(List.of(10), adaptive.applyFailFast(10).getErrors());
+  }
+
+  @Test void testAdaptiveOrdering() {
+    var expensiveCalls = new AtomicInteger();
+    var validator = Validator.<String, String>of()
+      .validate(subject -> {
+        expensiveCalls.incrementAndGet();
+        var hash = 0;
+        for (var i = 0; i < 10_000; i++) hash = 31 * hash + subject.hashCode() + i;
+        return hash != 42 && !subject.equals("bad");
+      }, "expensive")
+      .validate(subject -> subject.length() > 100, "short")
+      .adaptive();
+
+    for (var i = 0; i < 20_000; i++) assertFalse(validator.isValid("subject"));
+    expensiveCalls.set(0);
+    for (var i = 0; i < 1_000; i++) assertFalse(validator.isValid("subject"));
+    assertEquals(0, expensiveCalls.get());
+
+    assertEquals(List.of("short"), validator.applyFailFast("subject").getErrors());
+    assertEquals(List.of("expensive"), validator.applyFailFast("bad").getErrors());
+    assertEquals(List.of("expensive", "short"), validator.apply("bad").getErrors());
+  }
+
+  @Test void testRevalidate() {
+    var evaluations = new AtomicInteger();
+    Function<String[], String> first = pair -> pair[0];
+    Function<String[], String> second = pair -> pair[1];
+    var nameValidator = Validator.<String, String>of()
+      .validate(Objects::nonNull, "no name")
+      .whenValid(Validator.<String, String>of().validate(name -> evaluations.incrementAndGet() > 0 && !name.isEmpty(), "empty name"));
+
+    var validator = Validator.<String[], String>of()
+      .merge(first, nameValidator)
+      .merge(second, nameValidator)
+      .validate(pair -> !Objects.equals(pair[0], pair[1]), "same names");
+
+    var pair = new String[] {"a", null};
+    var validation = validator.applyIncremental(pair);
+    assertEquals(List.of("no name"), validation.getErrors());
+    assertEquals(4, validation.getEvaluatedRuleCount());
+
+    pair[1] = "";
+    var revalidated = validator.revalidate(validation, pair, List.of(second));
+    assertEquals(List.of("empty name"), revalidated.getErrors());
+    assertEquals(validator.apply(pair).getErrors(), revalidated.getErrors());
+    assertEquals(3, revalidated.getEvaluatedRuleCount());
+
+    pair[0] = "";
+    revalidated = validator.revalidate(revalidated, pair, List.of(first));
+    assertEquals(List.of("empty name", "empty name", "same names"), revalidated.getErrors());
+    assertEquals(3, revalidated.getEvaluatedRuleCount());
+
+    evaluations.set(0);
+    assertTrue(validator.revalidate(revalidated, pair, List.of()).isInvalid());
+    assertEquals(0, evaluations.get());
+    assertThrows(IllegalArgumentException.class, () -> nameValidator.revalidate(nameValidator.adaptive().applyIncremental(""), "", List.of()));
+  }
+
+  @Test void testRevalidateFields() {
+    var evaluations = new AtomicInteger();
+    Function<String, Integer> length = String::length;
+    Function<String, String> self = Function.identity();
+    var validator = Validator.<String, String>of()
+      .validate(length, l -> l > 1, "short")
+      .validate(self, s -> evaluations.incrementAndGet() > 0 && !s.isBlank(), "blank")
+      .merge(Validator.<String, String>of().validate(s -> evaluations.incrementAndGet() > 0 && s.startsWith("a"), "no prefix"));
+
+    var validation = validator.applyIncremental("abc");
+    assertEquals(2, evaluations.get());
+    var unchanged = validator.revalidate(validation, "abc", List.of());
+    assertEquals(validation, unchanged);
+    assertEquals(validation.hashCode(), unchanged.hashCode());
+    assertEquals(Validation.of("abc"), unchanged);
+    assertEquals(unchanged, Validation.of("abc"));
+    assertEquals(Validation.of("abc").hashCode(), unchanged.hashCode());
+    assertEquals(1, unchanged.getEvaluatedRuleCount());
+    assertEquals(3, evaluations.get());
+
+    var revalidated = validator.revalidate(validation, "b", List.of(length));
+    assertEquals(List.of("short", "no prefix"), revalidated.getErrors());
+    assertEquals(2, revalidated.getEvaluatedRuleCount());
+    assertEquals(4, evaluations.get());
+
+    assertEquals(List.of("short", "blank", "no prefix"), validator.revalidate(revalidated, " ", List.of(self)).getErrors());
+    assertThrows(IllegalArgumentException.class, () -> validator.revalidate(validation, "", List.of(String::trim)));
+  }
+}